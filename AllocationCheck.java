@@ -0,0 +1,88 @@
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+
+class AllocationCheck {
+    private static final int WARMUP_TICKS = 50_000;
+    private static final int MEASURED_TICKS = 20_000;
+    private static final double TICK_BUDGET_BYTES = Double.parseDouble(System.getProperty("stickman.allocBudget.tick", "1"));
+    private static final double RENDER_BUDGET_BYTES = Double.parseDouble(System.getProperty("stickman.allocBudget.render", "1"));
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            System.out.println("AllocationCheck: thread allocation accounting not supported, skipping");
+            return;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long tid = Thread.currentThread().getId();
+
+        GameWorld world = new GameWorld(GameAssets.loadAll());
+        WorldRenderer renderer = new WorldRenderer(world);
+        WorldSnapshot snapshot = new WorldSnapshot();
+        BufferedImage target = new BufferedImage(GameWorld.WIDTH, GameWorld.HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        world.reset();
+
+        for (int i = 0; i < WARMUP_TICKS; i++) {
+            step(world);
+            render(world, renderer, snapshot, g);
+        }
+
+        long overhead = threads.getThreadAllocatedBytes(tid);
+        overhead = threads.getThreadAllocatedBytes(tid) - overhead;
+
+        long tickBytes = 0;
+        long renderBytes = 0;
+        for (int i = 0; i < MEASURED_TICKS; i++) {
+            long t0 = threads.getThreadAllocatedBytes(tid);
+            step(world);
+            long t1 = threads.getThreadAllocatedBytes(tid);
+            render(world, renderer, snapshot, g);
+            long t2 = threads.getThreadAllocatedBytes(tid);
+            tickBytes += Math.max(0, t1 - t0 - overhead);
+            renderBytes += Math.max(0, t2 - t1 - overhead);
+        }
+        g.dispose();
+
+        double tickPerTick = (double) tickBytes / MEASURED_TICKS;
+        double renderPerTick = (double) renderBytes / MEASURED_TICKS;
+        System.out.printf("AllocationCheck: update %.2f B/tick (budget %.2f), render %.2f B/frame (budget %.2f)%n",
+                tickPerTick, TICK_BUDGET_BYTES, renderPerTick, RENDER_BUDGET_BYTES);
+        if (tickPerTick > TICK_BUDGET_BYTES || renderPerTick > RENDER_BUDGET_BYTES) {
+            System.out.println("AllocationCheck: FAILED, allocation budget exceeded");
+            System.exit(1);
+        }
+        System.out.println("AllocationCheck: OK");
+    }
+
+    private static void step(GameWorld world) {
+        if (world.isGameOver()) {
+            world.reset();
+        }
+        world.tick(GameWorld.SIM_DT, autopilot(world));
+    }
+
+    private static void render(GameWorld world, WorldRenderer renderer, WorldSnapshot snapshot, Graphics2D g) {
+        snapshot.capture(world);
+        renderer.drawBackground(g, snapshot, 0.5);
+        renderer.drawWorld(g, snapshot, 0.5);
+        renderer.drawHud(g, snapshot);
+    }
+
+    private static int autopilot(GameWorld world) {
+        Player player = world.getPlayer();
+        double front = player.getX() + player.getWidth();
+        double groundTop = GameWorld.HEIGHT - GameWorld.GROUND_HEIGHT - 10;
+        EntityRing obstacles = world.getObstacles();
+        for (int i = 0, s = obstacles.head(); i < obstacles.size(); i++, s = obstacles.next(s)) {
+            double gap = obstacles.x[s] - front;
+            if (gap > 0 && gap < 90) {
+                boolean overhead = obstacles.y[s] + obstacles.height[s] < groundTop;
+                return overhead ? GameWorld.INPUT_SLIDE_START : GameWorld.INPUT_JUMP;
+            }
+        }
+        return GameWorld.INPUT_SLIDE_END;
+    }
+}
@@ -0,0 +1,193 @@
+import java.awt.GraphicsConfiguration;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+class AssetLoader {
+    private enum Scaling { NONE, DOWN_ONLY, ANY }
+
+    private final GraphicsConfiguration gc;
+    private final ExecutorService pool;
+    private final GameAssets assets = new GameAssets();
+    private final AtomicInteger submitted = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final CompletableFuture<GameAssets> menuReady;
+    private final CompletableFuture<GameAssets> gameplayReady;
+
+    private AssetLoader(GraphicsConfiguration gc) {
+        this.gc = gc;
+        AtomicInteger threadId = new AtomicInteger();
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+        this.pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "AssetLoader-" + threadId.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        long startNs = System.nanoTime();
+        menuReady = loadMenu().exceptionally(this::loadFailed);
+        gameplayReady = loadGameplay()
+                .thenCombine(menuReady, (gameplay, menu) -> finish())
+                .exceptionally(this::loadFailed)
+                .whenComplete((result, error) -> {
+                    pool.shutdown();
+                    System.out.printf("AssetLoader: %d images in %.0f ms on %d threads%n",
+                            submitted.get(), (System.nanoTime() - startNs) / 1_000_000.0, threads);
+                });
+    }
+
+    static AssetLoader start() {
+        return new AssetLoader(ImageAccelerator.defaultConfiguration());
+    }
+
+    public CompletableFuture<GameAssets> menu() {
+        return menuReady;
+    }
+
+    public CompletableFuture<GameAssets> gameplay() {
+        return gameplayReady;
+    }
+
+    public double progress() {
+        int total = submitted.get();
+        return (total == 0) ? 1.0 : (double) completed.get() / total;
+    }
+
+    private CompletableFuture<GameAssets> loadMenu() {
+        CompletableFuture<BufferedImage> background = image(GameWorld.HEIGHT, Scaling.DOWN_ONLY, "Background.png", "Background.jpg");
+        CompletableFuture<BufferedImage> start = image(0, Scaling.NONE, "START.png");
+        CompletableFuture<BufferedImage> exit = image(0, Scaling.NONE, "EXIT.png");
+        CompletableFuture<BufferedImage> tryAgain = image(0, Scaling.NONE, "TRY AGAIN.png", "Try Again.png", "TRY_AGAIN.png");
+        CompletableFuture<BufferedImage[]> idle = frames("Player/Idle/Idle%d.png", 10, GameWorld.PLAYER_TARGET_HEIGHT, Scaling.DOWN_ONLY)
+                .thenCompose(found -> (found != null) ? CompletableFuture.completedFuture(found)
+                        : image(GameWorld.PLAYER_TARGET_HEIGHT, Scaling.DOWN_ONLY,
+                                "Player/Idle/IDLE.png", "Player/Idle/Idle.png", "Player/Idle/idle.png", "Player/Idle/IDLE.PNG")
+                                .thenApply(img -> (img != null) ? new BufferedImage[] {img} : null));
+
+        return CompletableFuture.allOf(background, start, exit, tryAgain, idle).thenApply(v -> {
+            assets.backgroundImage = background.join();
+            assets.startButtonImage = start.join();
+            assets.exitButtonImage = exit.join();
+            assets.tryAgainButtonImage = tryAgain.join();
+            assets.playerIdleFrames = idle.join();
+            return assets;
+        });
+    }
+
+    private CompletableFuture<GameAssets> loadGameplay() {
+        int playerH = GameWorld.PLAYER_TARGET_HEIGHT;
+        CompletableFuture<BufferedImage[]> run = frames("Player/Run/Run%d.png", 8, playerH, Scaling.DOWN_ONLY);
+        CompletableFuture<BufferedImage[]> jump = frames("Player/Jump/Jump%d.png", 10, playerH, Scaling.DOWN_ONLY);
+        CompletableFuture<BufferedImage[]> slide = frames("Player/Slide/Slide%d.png", 10, playerH, Scaling.DOWN_ONLY);
+        CompletableFuture<BufferedImage> stickman = image(playerH, Scaling.DOWN_ONLY, "Stickman.png");
+        CompletableFuture<BufferedImage> obstacle = image(100, Scaling.DOWN_ONLY, "obstacle.png");
+        CompletableFuture<BufferedImage[]> jumpObs = collect(List.of(
+                image(GameWorld.JUMP_OBS_HEIGHT, Scaling.ANY, "Obstacle/Jump Obstacle/Jump Obstacle1.png", "Obstacle/Jump Obstacle/Jump Obstable1.png"),
+                image(GameWorld.JUMP_OBS_HEIGHT, Scaling.ANY, "Obstacle/Jump Obstacle/Jump Obstacle2.png"),
+                image(GameWorld.JUMP_OBS_HEIGHT, Scaling.ANY, "Obstacle/Jump Obstacle/Jump Obstacle3.png")));
+        CompletableFuture<BufferedImage[]> slideObs = frames("Obstacle/Slide Obstacle/Slide Obstacle%d.png", 3, GameWorld.SLIDE_OBS_HEIGHT, Scaling.ANY);
+        CompletableFuture<BufferedImage> gift1 = image(GameWorld.GIFT_HEIGHT, Scaling.ANY, "Gift/Gift1.png");
+        CompletableFuture<BufferedImage> gift2 = image(GameWorld.GIFT_HEIGHT, Scaling.ANY, "Gift/Gift2.png");
+
+        return CompletableFuture.allOf(run, jump, slide, stickman, obstacle, jumpObs, slideObs, gift1, gift2).thenApply(v -> {
+            assets.playerRunFrames = run.join();
+            if (assets.playerRunFrames == null) {
+                assets.playerImage = stickman.join();
+            }
+            assets.playerJumpFrames = jump.join();
+            assets.playerSlideFrames = slide.join();
+            assets.playerSlideVisualFrames = slideVisualFrames(assets.playerRunFrames, assets.playerSlideFrames);
+            assets.obstacleImage = obstacle.join();
+            assets.jumpObstacleImages = jumpObs.join();
+            assets.slideObstacleImages = slideObs.join();
+            assets.gift1Image = gift1.join();
+            assets.gift2Image = gift2.join();
+            return assets;
+        });
+    }
+
+    private GameAssets loadFailed(Throwable error) {
+        System.err.println("Failed to load images: " + error.getMessage());
+        return assets;
+    }
+
+    private BufferedImage[] slideVisualFrames(BufferedImage[] run, BufferedImage[] slide) {
+        if (run == null || slide == null) {
+            return null;
+        }
+        int w = run[0].getWidth();
+        int h = Math.max(1, (int) Math.round(run[0].getHeight() * Player.SLIDE_VISUAL_SCALE));
+        BufferedImage[] visual = new BufferedImage[slide.length];
+        for (int i = 0; i < slide.length; i++) {
+            visual[i] = ImageAccelerator.toCompatible(GameAssets.scaleTo(slide[i], w, h), gc);
+        }
+        return visual;
+    }
+
+    private GameAssets finish() {
+        assets.buildAtlas(gc, ImageAccelerator.USE_VOLATILE && gc != null);
+        assets.buildCollisionMasks();
+        return assets;
+    }
+
+    private CompletableFuture<BufferedImage[]> frames(String pattern, int count, int targetHeight, Scaling scaling) {
+        List<CompletableFuture<BufferedImage>> parts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            parts.add(image(targetHeight, scaling, String.format(pattern, i + 1)));
+        }
+        return collect(parts);
+    }
+
+    private static CompletableFuture<BufferedImage[]> collect(List<CompletableFuture<BufferedImage>> parts) {
+        return CompletableFuture.allOf(parts.toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+            List<BufferedImage> found = new ArrayList<>();
+            for (CompletableFuture<BufferedImage> part : parts) {
+                BufferedImage img = part.join();
+                if (img != null) found.add(img);
+            }
+            return found.isEmpty() ? null : found.toArray(new BufferedImage[0]);
+        });
+    }
+
+    private CompletableFuture<BufferedImage> image(int targetHeight, Scaling scaling, String... candidates) {
+        File file = null;
+        for (String path : candidates) {
+            File f = new File(path);
+            if (f.exists()) {
+                file = f;
+                break;
+            }
+        }
+        if (file == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        File source = file;
+        submitted.incrementAndGet();
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                BufferedImage img = ImageIO.read(source);
+                if (img == null) {
+                    return null;
+                }
+                if (scaling == Scaling.DOWN_ONLY) {
+                    img = GameAssets.scaleToHeight(img, targetHeight);
+                } else if (scaling == Scaling.ANY) {
+                    img = GameAssets.scaleToHeightAllowUpscale(img, targetHeight);
+                }
+                return ImageAccelerator.toCompatible(img, gc);
+            } catch (IOException e) {
+                System.err.println("Failed to load image '" + source + "': " + e.getMessage());
+                return null;
+            } finally {
+                completed.incrementAndGet();
+            }
+        }, pool);
+    }
+}
@@ -0,0 +1,69 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+class AudioCommandQueue {
+    private final int mask;
+    private final AtomicLongArray sequence;
+    private final int[] ops;
+    private final String[] paths;
+    private final float[] gains;
+    private final AtomicLong tail = new AtomicLong();
+    private long head = 0;
+
+    private int polledOp;
+    private String polledPath;
+    private float polledGain;
+
+    AudioCommandQueue(int minCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, minCapacity) - 1) << 1;
+        mask = capacity - 1;
+        sequence = new AtomicLongArray(capacity);
+        ops = new int[capacity];
+        paths = new String[capacity];
+        gains = new float[capacity];
+        for (int i = 0; i < capacity; i++) {
+            sequence.set(i, i);
+        }
+    }
+
+    public boolean offer(int op, String path, float gain) {
+        long pos = tail.get();
+        while (true) {
+            int i = (int) (pos & mask);
+            long diff = sequence.get(i) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    ops[i] = op;
+                    paths[i] = path;
+                    gains[i] = gain;
+                    sequence.set(i, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    // Single consumer only; the polled command is read back through op(), path() and gain().
+    public boolean poll() {
+        int i = (int) (head & mask);
+        if (sequence.get(i) != head + 1) {
+            return false;
+        }
+        polledOp = ops[i];
+        polledPath = paths[i];
+        polledGain = gains[i];
+        paths[i] = null;
+        sequence.set(i, head + mask + 1);
+        head++;
+        return true;
+    }
+
+    public int op() { return polledOp; }
+    public String path() { return polledPath; }
+    public float gain() { return polledGain; }
+}
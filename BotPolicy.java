@@ -0,0 +1,123 @@
+import java.util.Random;
+
+abstract class BotPolicy {
+    protected final Random random = new Random();
+
+    // "reactive" (times jumps and slides off the nearest obstacle, with human-like jitter) or "random".
+    static BotPolicy create(String name) {
+        switch (name) {
+            case "reactive":
+                return new Reactive();
+            case "random":
+                return new RandomPresses();
+            default:
+                throw new IllegalArgumentException("unknown bot policy '" + name + "'");
+        }
+    }
+
+    public void reset(long seed) {
+        random.setSeed(seed);
+    }
+
+    // Called once per tick before world.tick(); returns GameWorld.INPUT_* bits.
+    abstract int inputs(GameWorld world);
+
+    static final class Reactive extends BotPolicy {
+        private static final double LEAD_S = Double.parseDouble(System.getProperty("stickman.bot.leadMs", "130")) / 1000.0;
+        private static final double JITTER_S = Double.parseDouble(System.getProperty("stickman.bot.jitterMs", "35")) / 1000.0;
+        private static final double MISS_PROB = Double.parseDouble(System.getProperty("stickman.bot.missProb", "0"));
+
+        private double lastTimeToContact = Double.MAX_VALUE;
+        private double targetLead = LEAD_S;
+        private boolean targetMissed = false;
+        private boolean sliding = false;
+
+        @Override
+        public void reset(long seed) {
+            super.reset(seed);
+            lastTimeToContact = Double.MAX_VALUE;
+            targetLead = LEAD_S;
+            targetMissed = false;
+            sliding = false;
+        }
+
+        @Override
+        int inputs(GameWorld world) {
+            Player player = world.getPlayer();
+            double back = player.getBoundsX();
+            double front = back + player.getBoundsWidth();
+            EntityRing ring = world.getObstacles();
+            int target = -1;
+            for (int i = ring.lowerBound(back - ring.maxWidth()); i < ring.size(); i++) {
+                int s = ring.slot(i);
+                if (ring.x[s] + ring.width[s] > back) {
+                    target = s;
+                    break;
+                }
+            }
+            if (target < 0) {
+                lastTimeToContact = Double.MAX_VALUE;
+                return releaseSlide();
+            }
+            double speed = Math.max(1.0, -ring.speedX[target]);
+            double timeToContact = (ring.x[target] - front) / speed;
+            if (timeToContact > lastTimeToContact + GameWorld.SIM_DT) {
+                // The previous obstacle passed; draw this one's reaction timing.
+                targetLead = LEAD_S + random.nextGaussian() * JITTER_S;
+                targetMissed = random.nextDouble() < MISS_PROB;
+            }
+            lastTimeToContact = timeToContact;
+            if (targetMissed || timeToContact > targetLead) {
+                return releaseSlide();
+            }
+            if (ring.type[target] == GameWorld.OBSTACLE_SLIDE) {
+                if (!sliding) {
+                    sliding = true;
+                    return GameWorld.INPUT_SLIDE_START;
+                }
+                return 0;
+            }
+            int release = releaseSlide();
+            return (release != 0) ? release : GameWorld.INPUT_JUMP;
+        }
+
+        private int releaseSlide() {
+            if (sliding) {
+                sliding = false;
+                return GameWorld.INPUT_SLIDE_END;
+            }
+            return 0;
+        }
+    }
+
+    static final class RandomPresses extends BotPolicy {
+        private static final double JUMPS_PER_S = 1.5;
+        private static final double SLIDES_PER_S = 0.5;
+        private static final double SLIDE_HOLD_S = 0.4;
+
+        private double slideLeft = 0.0;
+
+        @Override
+        public void reset(long seed) {
+            super.reset(seed);
+            slideLeft = 0.0;
+        }
+
+        @Override
+        int inputs(GameWorld world) {
+            if (slideLeft > 0) {
+                slideLeft -= GameWorld.SIM_DT;
+                return (slideLeft <= 0) ? GameWorld.INPUT_SLIDE_END : 0;
+            }
+            double r = random.nextDouble();
+            if (r < JUMPS_PER_S * GameWorld.SIM_DT) {
+                return GameWorld.INPUT_JUMP;
+            }
+            if (r < (JUMPS_PER_S + SLIDES_PER_S) * GameWorld.SIM_DT) {
+                slideLeft = SLIDE_HOLD_S;
+                return GameWorld.INPUT_SLIDE_START;
+            }
+            return 0;
+        }
+    }
+}
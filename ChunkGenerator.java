@@ -0,0 +1,162 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class ChunkGenerator {
+    static final int CHUNK_TICKS = GameWorld.SIM_HZ * 2;
+    private static final double PATTERN_SPAN_PAD_PX = 120.0;
+    static final List<LevelChunk> AUTHORED = loadAuthored(System.getProperty("stickman.levelFile"));
+
+    // Authored groups spawned on one tick at a shared speed: {kind, dx, clearance} triples.
+    private static final int[][] PATTERNS = {
+        {LevelChunk.KIND_JUMP, 0, 0, LevelChunk.KIND_JUMP, 440, 0},
+        {LevelChunk.KIND_JUMP, 0, 0, LevelChunk.KIND_SLIDE, 480, 0},
+        {LevelChunk.KIND_JUMP, 0, 0, LevelChunk.KIND_GIFT1, 10, 230},
+        {LevelChunk.KIND_SLIDE, 0, 0, LevelChunk.KIND_GIFT1, 40, 20},
+        {LevelChunk.KIND_JUMP, 0, 0, LevelChunk.KIND_JUMP, 430, 0, LevelChunk.KIND_JUMP, 860, 0},
+    };
+
+    private final Random random = new Random();
+    private final int jumpVariants;
+    private final int slideVariants;
+    private final List<LevelChunk> authored;
+    private Difficulty difficulty = new Difficulty();
+    private long index;
+    private long nextObstacleTick;
+    private long nextGiftTick;
+    private long lastSlideTick;
+
+    ChunkGenerator(int jumpVariants, int slideVariants, List<LevelChunk> authored) {
+        this.jumpVariants = Math.max(1, jumpVariants);
+        this.slideVariants = slideVariants;
+        this.authored = authored;
+    }
+
+    public void reset(long seed, Difficulty difficulty) {
+        this.difficulty = difficulty;
+        random.setSeed(seed);
+        index = 0;
+        nextObstacleTick = spawnDelayTicks();
+        nextGiftTick = seconds(difficulty.giftCheckInterval);
+        lastSlideTick = -seconds(difficulty.slideMinInterval);
+    }
+
+    // Fills the next chunk in sequence. Output depends only on the seed, the difficulty and how many
+    // chunks came before, never on which thread asks or when.
+    public void next(LevelChunk chunk) {
+        if (!authored.isEmpty()) {
+            chunk.copyFrom(authored.get((int) (index++ % authored.size())));
+            return;
+        }
+        chunk.begin(CHUNK_TICKS);
+        long start = index++ * CHUNK_TICKS;
+        long end = start + CHUNK_TICKS;
+        while (true) {
+            long tick = Math.min(nextObstacleTick, nextGiftTick);
+            if (tick >= end) {
+                break;
+            }
+            if (nextObstacleTick <= nextGiftTick) {
+                emitObstacles(chunk, (int) (nextObstacleTick - start));
+            } else {
+                emitGift(chunk, (int) (nextGiftTick - start));
+            }
+        }
+    }
+
+    private void emitObstacles(LevelChunk chunk, int tick) {
+        int speed = (int) Math.round(difficulty.obstacleBaseSpeed + random.nextDouble() * difficulty.obstacleSpeedVariance);
+        boolean slideAllowed = slideVariants > 0 && nextObstacleTick - lastSlideTick >= seconds(difficulty.slideMinInterval);
+        double spanPx = 0.0;
+        if (random.nextDouble() < difficulty.patternProb) {
+            int[] pattern = PATTERNS[random.nextInt(PATTERNS.length)];
+            if (slideAllowed || !hasSlide(pattern)) {
+                for (int i = 0; i < pattern.length; i += 3) {
+                    int kind = pattern[i];
+                    chunk.add(tick, kind, variant(kind), pattern[i + 1], speed, pattern[i + 2]);
+                    spanPx = Math.max(spanPx, pattern[i + 1]);
+                }
+                if (hasSlide(pattern)) {
+                    lastSlideTick = nextObstacleTick;
+                }
+                nextObstacleTick += Math.round((spanPx + PATTERN_SPAN_PAD_PX) / -Math.min(-1, speed) * GameWorld.SIM_HZ) + spawnDelayTicks();
+                return;
+            }
+        }
+        boolean slide = slideAllowed && random.nextDouble() < difficulty.slideSpawnProb;
+        int kind = slide ? LevelChunk.KIND_SLIDE : LevelChunk.KIND_JUMP;
+        chunk.add(tick, kind, variant(kind), 0, speed, 0);
+        if (slide) {
+            lastSlideTick = nextObstacleTick;
+        }
+        nextObstacleTick += spawnDelayTicks();
+    }
+
+    private void emitGift(LevelChunk chunk, int tick) {
+        double r = random.nextDouble();
+        if (r < difficulty.gift1Prob + difficulty.gift2Prob) {
+            int kind = (r < difficulty.gift2Prob) ? LevelChunk.KIND_GIFT2 : LevelChunk.KIND_GIFT1;
+            int speed = (int) Math.round(difficulty.giftBaseSpeed + random.nextDouble() * difficulty.giftSpeedVariance);
+            chunk.add(tick, kind, 0, 0, speed, 100);
+        }
+        nextGiftTick += seconds(difficulty.giftCheckInterval);
+    }
+
+    private int variant(int kind) {
+        if (kind == LevelChunk.KIND_JUMP) return random.nextInt(jumpVariants);
+        if (kind == LevelChunk.KIND_SLIDE) return random.nextInt(slideVariants);
+        return 0;
+    }
+
+    private long spawnDelayTicks() {
+        return seconds(difficulty.minSpawnDelay + random.nextDouble() * (difficulty.maxSpawnDelay - difficulty.minSpawnDelay));
+    }
+
+    private static boolean hasSlide(int[] pattern) {
+        for (int i = 0; i < pattern.length; i += 3) {
+            if (pattern[i] == LevelChunk.KIND_SLIDE) return true;
+        }
+        return false;
+    }
+
+    private static List<LevelChunk> loadAuthored(String path) {
+        if (path == null || path.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            List<LevelChunk> chunks = LevelChunk.load(new File(path));
+            System.out.println("ChunkGenerator: playing " + chunks.size() + " authored chunks from " + path);
+            return chunks;
+        } catch (IOException e) {
+            System.err.println("ChunkGenerator: failed to load '" + path + "', using procedural chunks: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    private static long seconds(double s) {
+        return Math.max(1, Math.round(s * GameWorld.SIM_HZ));
+    }
+
+    // Dumps procedural chunks to a file as a starting point for authored levels (-Dstickman.levelFile).
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.println("usage: ChunkGenerator <seed> <chunks> <out.lvl>");
+            return;
+        }
+        ChunkGenerator generator = new ChunkGenerator(4, 2, new ArrayList<>());
+        generator.reset(Long.parseLong(args[0]), new Difficulty());
+        int count = Integer.parseInt(args[1]);
+        List<LevelChunk> chunks = new ArrayList<>(count);
+        int bytes = 0;
+        for (int i = 0; i < count; i++) {
+            LevelChunk chunk = new LevelChunk();
+            generator.next(chunk);
+            bytes += chunk.getByteLength();
+            chunks.add(chunk);
+        }
+        LevelChunk.save(new File(args[2]), chunks);
+        System.out.println("Wrote " + count + " chunks (" + bytes + " entry bytes) to " + args[2]);
+    }
+}
@@ -0,0 +1,86 @@
+import java.awt.image.BufferedImage;
+
+class CollisionMask {
+    private static final int ALPHA_THRESHOLD = 128;
+
+    private final int width;
+    private final int height;
+    private final int stride;
+    private final long[] rows;
+
+    private CollisionMask(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.stride = (width + 63) >>> 6;
+        this.rows = new long[stride * height];
+    }
+
+    static CollisionMask of(BufferedImage image) {
+        return of(image, image.getWidth(), image.getHeight());
+    }
+
+    static CollisionMask of(BufferedImage image, int w, int h) {
+        if (image.getWidth() != w || image.getHeight() != h) {
+            image = GameAssets.scaleTo(image, w, h);
+        }
+        CollisionMask mask = new CollisionMask(w, h);
+        int[] argb = image.getRGB(0, 0, w, h, null, 0, w);
+        for (int row = 0; row < h; row++) {
+            int base = row * mask.stride;
+            for (int col = 0; col < w; col++) {
+                if ((argb[row * w + col] >>> 24) >= ALPHA_THRESHOLD) {
+                    mask.rows[base + (col >>> 6)] |= 1L << (col & 63);
+                }
+            }
+        }
+        return mask;
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    public boolean get(int col, int row) {
+        return (rows[row * stride + (col >>> 6)] & (1L << (col & 63))) != 0;
+    }
+
+    // Null masks count as fully solid, so callers fall back to the rectangle test.
+    static boolean overlaps(CollisionMask a, int ax, int ay, int aw, int ah,
+                            CollisionMask b, int bx, int by, int bw, int bh) {
+        int left = Math.max(ax, bx);
+        int right = Math.min(ax + aw, bx + bw);
+        int top = Math.max(ay, by);
+        int bottom = Math.min(ay + ah, by + bh);
+        if (left >= right || top >= bottom) {
+            return false;
+        }
+        if (a != null && (a.width != aw || a.height != ah)) a = null;
+        if (b != null && (b.width != bw || b.height != bh)) b = null;
+        if (a == null && b == null) {
+            return true;
+        }
+        for (int y = top; y < bottom; y++) {
+            for (int x = left; x < right; x += 64) {
+                int n = Math.min(64, right - x);
+                long keep = (n == 64) ? -1L : (1L << n) - 1;
+                if ((bits(a, x - ax, y - ay) & bits(b, x - bx, y - by) & keep) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static long bits(CollisionMask mask, int col, int row) {
+        if (mask == null) {
+            return -1L;
+        }
+        int base = row * mask.stride;
+        int word = col >>> 6;
+        int shift = col & 63;
+        long value = mask.rows[base + word] >>> shift;
+        if (shift != 0 && word + 1 < mask.stride) {
+            value |= mask.rows[base + word + 1] << (64 - shift);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,96 @@
+import java.util.Locale;
+
+class Difficulty {
+    double minSpawnGapPx = 400;
+    double minSpawnDelay = 1.3;
+    double maxSpawnDelay = 2.2;
+    double slideMinInterval = 2.5;
+    double slideSpawnProb = 0.45;
+    double patternProb = 0.25;
+    double obstacleBaseSpeed = -600.0;
+    double obstacleSpeedVariance = -240.0;
+    double giftBaseSpeed = -540.0;
+    double giftSpeedVariance = -180.0;
+    double giftCheckInterval = 1.0;
+    int maxSimultGifts = 2;
+    double gift1Prob = 0.4;
+    double gift2Prob = 0.1;
+    double gift1Duration = 10.0;
+    double gift2Duration = 5.0;
+    double gift2SpeedMultiplier = 2.0;
+
+    private String name = "default";
+
+    public String getName() { return name; }
+
+    public Difficulty copy(String newName) {
+        Difficulty d = new Difficulty();
+        d.minSpawnGapPx = minSpawnGapPx;
+        d.minSpawnDelay = minSpawnDelay;
+        d.maxSpawnDelay = maxSpawnDelay;
+        d.slideMinInterval = slideMinInterval;
+        d.slideSpawnProb = slideSpawnProb;
+        d.patternProb = patternProb;
+        d.obstacleBaseSpeed = obstacleBaseSpeed;
+        d.obstacleSpeedVariance = obstacleSpeedVariance;
+        d.giftBaseSpeed = giftBaseSpeed;
+        d.giftSpeedVariance = giftSpeedVariance;
+        d.giftCheckInterval = giftCheckInterval;
+        d.maxSimultGifts = maxSimultGifts;
+        d.gift1Prob = gift1Prob;
+        d.gift2Prob = gift2Prob;
+        d.gift1Duration = gift1Duration;
+        d.gift2Duration = gift2Duration;
+        d.gift2SpeedMultiplier = gift2SpeedMultiplier;
+        d.name = newName;
+        return d;
+    }
+
+    public void set(String key, double value) {
+        switch (key) {
+            case "minSpawnGapPx": minSpawnGapPx = value; break;
+            case "minSpawnDelay": minSpawnDelay = value; break;
+            case "maxSpawnDelay": maxSpawnDelay = value; break;
+            case "slideMinInterval": slideMinInterval = value; break;
+            case "slideSpawnProb": slideSpawnProb = value; break;
+            case "patternProb": patternProb = value; break;
+            case "obstacleBaseSpeed": obstacleBaseSpeed = value; break;
+            case "obstacleSpeedVariance": obstacleSpeedVariance = value; break;
+            case "giftBaseSpeed": giftBaseSpeed = value; break;
+            case "giftSpeedVariance": giftSpeedVariance = value; break;
+            case "giftCheckInterval": giftCheckInterval = value; break;
+            case "maxSimultGifts": maxSimultGifts = (int) value; break;
+            case "gift1Prob": gift1Prob = value; break;
+            case "gift2Prob": gift2Prob = value; break;
+            case "gift1Duration": gift1Duration = value; break;
+            case "gift2Duration": gift2Duration = value; break;
+            case "gift2SpeedMultiplier": gift2SpeedMultiplier = value; break;
+            default: throw new IllegalArgumentException("unknown difficulty parameter '" + key + "'");
+        }
+    }
+
+    // "name:key=value,key=value" on top of the defaults; a bare "name" (or "default") is the defaults.
+    static Difficulty parse(String spec) {
+        int colon = spec.indexOf(':');
+        Difficulty d = new Difficulty().copy((colon < 0) ? spec : spec.substring(0, colon));
+        if (colon < 0) {
+            return d;
+        }
+        for (String pair : spec.substring(colon + 1).split(",")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("expected key=value, got '" + pair + "'");
+            }
+            d.set(pair.substring(0, eq).trim(), Double.parseDouble(pair.substring(eq + 1).trim()));
+        }
+        return d;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s [spawn %.2f-%.2fs gap %.0fpx, slide p%.2f/%.1fs, patterns p%.2f, speed %.0f%+.0f, gifts p%.2f/%.2f every %.1fs max %d]",
+                name, minSpawnDelay, maxSpawnDelay, minSpawnGapPx, slideSpawnProb, slideMinInterval, patternProb,
+                obstacleBaseSpeed, obstacleSpeedVariance, gift1Prob, gift2Prob, giftCheckInterval, maxSimultGifts);
+    }
+}
@@ -0,0 +1,151 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+class DifficultyTuner {
+    private static final int LEAF_RUNS = 64;
+    private static final long SEED_STRIDE = 0x9E3779B97F4A7C15L;
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int runs = 100_000;
+        double maxSeconds = 120.0;
+        long baseSeed = 1L;
+        String policy = "reactive";
+        List<Difficulty> sets = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-runs": runs = Integer.parseInt(args[++i]); break;
+                case "-maxSeconds": maxSeconds = Double.parseDouble(args[++i]); break;
+                case "-seed": baseSeed = Long.parseLong(args[++i]); break;
+                case "-policy": policy = args[++i]; break;
+                default: sets.add(Difficulty.parse(args[i]));
+            }
+        }
+        if (sets.isEmpty()) {
+            sets.add(new Difficulty());
+        }
+        if (runs <= 0) {
+            System.out.println("usage: DifficultyTuner [-runs N] [-maxSeconds S] [-seed S] [-policy reactive|random] [name:key=value,... ...]");
+            return;
+        }
+        BotPolicy.create(policy);
+
+        GameAssets assets = GameAssets.loadAll();
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        long maxTicks = Math.round(maxSeconds * GameWorld.SIM_HZ);
+        System.out.printf("DifficultyTuner: %d runs per set, policy %s, cap %.0fs, base seed %d, %d workers%n",
+                runs, policy, maxSeconds, baseSeed, pool.getParallelism());
+        for (Difficulty difficulty : sets) {
+            Batch batch = new Batch(assets, difficulty, policy, baseSeed, maxTicks, runs);
+            long startNs = System.nanoTime();
+            pool.invoke(new Runs(batch, 0, runs));
+            double elapsed = (System.nanoTime() - startNs) / 1e9;
+            report(difficulty, batch, maxTicks, elapsed);
+        }
+    }
+
+    // The same run index gets the same seed in every set, so sets are compared on identical obstacle streams
+    // as far as the parameters allow.
+    static long runSeed(long baseSeed, int run) {
+        long z = baseSeed + (run + 1) * SEED_STRIDE;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    static final class Batch {
+        final long baseSeed;
+        final long maxTicks;
+        final int[] ticks;
+        final int[] scores;
+        private final ThreadLocal<GameWorld> worlds;
+        private final ThreadLocal<BotPolicy> bots;
+
+        Batch(GameAssets assets, Difficulty difficulty, String policy, long baseSeed, long maxTicks, int runs) {
+            this.baseSeed = baseSeed;
+            this.maxTicks = maxTicks;
+            ticks = new int[runs];
+            scores = new int[runs];
+            worlds = ThreadLocal.withInitial(() -> {
+                GameWorld world = new GameWorld(assets);
+                world.setDifficulty(difficulty);
+                return world;
+            });
+            bots = ThreadLocal.withInitial(() -> BotPolicy.create(policy));
+        }
+
+        void run(int index) {
+            GameWorld world = worlds.get();
+            BotPolicy bot = bots.get();
+            long seed = runSeed(baseSeed, index);
+            world.reset(seed);
+            bot.reset(~seed);
+            while (!world.isGameOver() && world.getTickCount() < maxTicks) {
+                world.tick(GameWorld.SIM_DT, bot.inputs(world));
+            }
+            ticks[index] = (int) world.getTickCount();
+            scores[index] = world.getScore();
+        }
+    }
+
+    private static void report(Difficulty difficulty, Batch batch, long maxTicks, double elapsed) {
+        int runs = batch.ticks.length;
+        int[] ticks = batch.ticks.clone();
+        int[] scores = batch.scores.clone();
+        Arrays.sort(ticks);
+        Arrays.sort(scores);
+        long tickSum = 0;
+        long scoreSum = 0;
+        int capped = 0;
+        for (int i = 0; i < runs; i++) {
+            tickSum += ticks[i];
+            scoreSum += scores[i];
+            if (ticks[i] >= maxTicks) capped++;
+        }
+        double simulated = tickSum * GameWorld.SIM_DT;
+        System.out.println(difficulty);
+        System.out.printf("  survival s  mean %7.2f  p10 %7.2f  p25 %7.2f  p50 %7.2f  p75 %7.2f  p90 %7.2f  p99 %7.2f  capped %.2f%%%n",
+                tickSum * GameWorld.SIM_DT / runs, seconds(ticks, 0.10), seconds(ticks, 0.25), seconds(ticks, 0.50),
+                seconds(ticks, 0.75), seconds(ticks, 0.90), seconds(ticks, 0.99), 100.0 * capped / runs);
+        System.out.printf("  score       mean %7.2f  p10 %7d  p25 %7d  p50 %7d  p75 %7d  p90 %7d  p99 %7d  max %d%n",
+                (double) scoreSum / runs, quantile(scores, 0.10), quantile(scores, 0.25), quantile(scores, 0.50),
+                quantile(scores, 0.75), quantile(scores, 0.90), quantile(scores, 0.99), scores[runs - 1]);
+        System.out.printf("  %d runs, %.0fs simulated in %.1fs (%.0fx real time)%n", runs, simulated, elapsed, simulated / Math.max(elapsed, 1e-9));
+    }
+
+    private static int quantile(int[] sorted, double q) {
+        return sorted[Math.min(sorted.length - 1, (int) (q * sorted.length))];
+    }
+
+    private static double seconds(int[] sortedTicks, double q) {
+        return quantile(sortedTicks, q) * GameWorld.SIM_DT;
+    }
+
+    private static final class Runs extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Batch batch;
+        private final int from;
+        private final int to;
+
+        Runs(Batch batch, int from, int to) {
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_RUNS) {
+                for (int i = from; i < to; i++) {
+                    batch.run(i);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Runs(batch, from, mid), new Runs(batch, mid, to));
+        }
+    }
+}
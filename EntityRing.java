@@ -0,0 +1,186 @@
+class EntityRing {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    double[] x;
+    double[] prevX;
+    double[] y;
+    double[] speedX;
+    int[] width;
+    int[] height;
+    int[] type;
+    int[] image;
+
+    private int head = 0;
+    private int size = 0;
+    private int mask;
+    private double rightmost = Double.NEGATIVE_INFINITY;
+    private int maxWidth = 0;
+
+    EntityRing() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    EntityRing(int minCapacity) {
+        allocate(Integer.highestOneBit(Math.max(2, minCapacity) - 1) << 1);
+    }
+
+    private void allocate(int capacity) {
+        x = new double[capacity];
+        prevX = new double[capacity];
+        y = new double[capacity];
+        speedX = new double[capacity];
+        width = new int[capacity];
+        height = new int[capacity];
+        type = new int[capacity];
+        image = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int head() {
+        return head;
+    }
+
+    public int slot(int index) {
+        return (head + index) & mask;
+    }
+
+    public int next(int slot) {
+        return (slot + 1) & mask;
+    }
+
+    public double rightEdge() {
+        return (size == 0) ? 0.0 : rightmost;
+    }
+
+    void setRightmost(double rightmost) {
+        this.rightmost = rightmost;
+    }
+
+    public int maxWidth() {
+        return maxWidth;
+    }
+
+    public int lowerBound(double minX) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (x[(head + mid) & mask] < minX) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    public int add(double px, double py, int w, int h, double vx, int entityType, int imageIndex) {
+        if (size == x.length) {
+            grow();
+        }
+        int s = (head + size) & mask;
+        x[s] = px;
+        prevX[s] = px;
+        y[s] = py;
+        speedX[s] = vx;
+        width[s] = w;
+        height[s] = h;
+        type[s] = entityType;
+        image[s] = imageIndex;
+        size++;
+        rightmost = (size == 1) ? px + w : Math.max(rightmost, px + w);
+        maxWidth = Math.max(maxWidth, w);
+        siftLeft(size - 1);
+        return s;
+    }
+
+    public void removeFirst() {
+        head = (head + 1) & mask;
+        size--;
+    }
+
+    public void remove(int slot) {
+        int s = slot;
+        while (s != head) {
+            int prev = (s - 1) & mask;
+            copy(prev, s);
+            s = prev;
+        }
+        removeFirst();
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+        rightmost = Double.NEGATIVE_INFINITY;
+        maxWidth = 0;
+    }
+
+    public void sortByX() {
+        for (int i = 1; i < size; i++) {
+            siftLeft(i);
+        }
+    }
+
+    private void siftLeft(int index) {
+        int s = (head + index) & mask;
+        int prev = (s - 1) & mask;
+        if (index == 0 || x[prev] <= x[s]) {
+            return;
+        }
+        double cx = x[s], cpx = prevX[s], cy = y[s], cvx = speedX[s];
+        int cw = width[s], ch = height[s], ct = type[s], ci = image[s];
+        while (index > 0 && x[prev] > cx) {
+            copy(prev, s);
+            s = prev;
+            prev = (s - 1) & mask;
+            index--;
+        }
+        x[s] = cx;
+        prevX[s] = cpx;
+        y[s] = cy;
+        speedX[s] = cvx;
+        width[s] = cw;
+        height[s] = ch;
+        type[s] = ct;
+        image[s] = ci;
+    }
+
+    private void copy(int from, int to) {
+        x[to] = x[from];
+        prevX[to] = prevX[from];
+        y[to] = y[from];
+        speedX[to] = speedX[from];
+        width[to] = width[from];
+        height[to] = height[from];
+        type[to] = type[from];
+        image[to] = image[from];
+    }
+
+    private void grow() {
+        double[] ox = x, opx = prevX, oy = y, ovx = speedX;
+        int[] ow = width, oh = height, ot = type, oi = image;
+        int oldMask = mask;
+        allocate(x.length * 2);
+        for (int i = 0; i < size; i++) {
+            int from = (head + i) & oldMask;
+            x[i] = ox[from];
+            prevX[i] = opx[from];
+            y[i] = oy[from];
+            speedX[i] = ovx[from];
+            width[i] = ow[from];
+            height[i] = oh[from];
+            type[i] = ot[from];
+            image[i] = oi[from];
+        }
+        head = 0;
+    }
+}
@@ -0,0 +1,98 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+class FrameCsvWriter implements Runnable {
+    static final int COLUMNS = 7;
+    private static final String HEADER = "frame,time_ns,update_ns,render_ns,present_ns,frame_ns,gc_count";
+    private static final int CAPACITY = 4096;
+    private static final long IDLE_PARK_NS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final String path;
+    private final long[] samples = new long[CAPACITY * COLUMNS];
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final Thread thread;
+    private volatile boolean running = true;
+    private long dropped = 0;
+
+    FrameCsvWriter(String path) {
+        this.path = path;
+        thread = new Thread(this, "FrameCsvWriter");
+        thread.setDaemon(true);
+        thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::closeAndWait, "FrameCsvWriter-shutdown"));
+    }
+
+    // Game thread only. Returns false and counts the sample as dropped when the writer has fallen behind.
+    public boolean offer(long frame, long timeNs, long updateNs, long renderNs, long presentNs, long frameNs, long gcCount) {
+        long t = tail.get();
+        if (t - head.get() >= CAPACITY) {
+            dropped++;
+            return false;
+        }
+        int base = (int) (t % CAPACITY) * COLUMNS;
+        samples[base] = frame;
+        samples[base + 1] = timeNs;
+        samples[base + 2] = updateNs;
+        samples[base + 3] = renderNs;
+        samples[base + 4] = presentNs;
+        samples[base + 5] = frameNs;
+        samples[base + 6] = gcCount;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    public long droppedCount() { return dropped; }
+
+    public void close() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    private void closeAndWait() {
+        close();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        try (BufferedWriter out = new BufferedWriter(new FileWriter(path))) {
+            out.write(HEADER);
+            out.newLine();
+            System.out.println("FrameCsvWriter: writing frame samples to " + path);
+            StringBuilder line = new StringBuilder(128);
+            while (true) {
+                boolean stopping = !running;
+                long h = head.get();
+                long t = tail.get();
+                if (h == t) {
+                    if (stopping) break;
+                    out.flush();
+                    LockSupport.parkNanos(this, IDLE_PARK_NS);
+                    continue;
+                }
+                for (; h < t; h++) {
+                    int base = (int) (h % CAPACITY) * COLUMNS;
+                    line.setLength(0);
+                    for (int c = 0; c < COLUMNS; c++) {
+                        if (c > 0) line.append(',');
+                        line.append(samples[base + c]);
+                    }
+                    out.append(line);
+                    out.newLine();
+                }
+                head.lazySet(h);
+            }
+        } catch (IOException e) {
+            System.err.println("FrameCsvWriter: failed to write '" + path + "': " + e.getMessage());
+        }
+    }
+}
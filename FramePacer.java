@@ -0,0 +1,131 @@
+import java.util.concurrent.locks.LockSupport;
+
+abstract class FramePacer {
+    private static final long SPIN_THRESHOLD_NS = Long.getLong("stickman.pacer.spinUs", 2000) * 1000L;
+    private static final long MAX_SLACK_NS = 4_000_000L;
+
+    private final long frameNs;
+    private long nextDeadline = 0;
+
+    FramePacer(long frameNs) {
+        this.frameNs = frameNs;
+    }
+
+    // "spin" (sleep, then busy-wait the last stretch), "park" (parkNanos with learned slack) or "uncapped".
+    static FramePacer create(String mode, long frameNs) {
+        switch (mode) {
+            case "spin":
+                return new SleepSpin(frameNs);
+            case "uncapped":
+                return new Uncapped(frameNs);
+            case "park":
+                return new AdaptivePark(frameNs);
+            default:
+                System.err.println("FramePacer: unknown mode '" + mode + "', using park");
+                return new AdaptivePark(frameNs);
+        }
+    }
+
+    abstract String name();
+
+    // Blocks until roughly deadline and returns System.nanoTime() at wake-up.
+    abstract long waitUntil(long deadline);
+
+    // Waits for the next frame deadline and returns how late it woke (ns), or -1 if the frame had already
+    // overrun its slot. Deadlines advance by exactly one frame so errors do not accumulate; after an
+    // overrun of more than a frame the schedule restarts from now instead of bursting to catch up.
+    public long sync() {
+        long now = System.nanoTime();
+        if (nextDeadline == 0 || now - nextDeadline > frameNs) {
+            nextDeadline = now + frameNs;
+            return -1;
+        }
+        if (now - nextDeadline >= 0) {
+            nextDeadline += frameNs;
+            return -1;
+        }
+        long error = waitUntil(nextDeadline) - nextDeadline;
+        nextDeadline += frameNs;
+        return error;
+    }
+
+    static final class SleepSpin extends FramePacer {
+        SleepSpin(long frameNs) {
+            super(frameNs);
+        }
+
+        @Override
+        String name() { return "spin"; }
+
+        @Override
+        long waitUntil(long deadline) {
+            long remaining;
+            while ((remaining = deadline - System.nanoTime()) > SPIN_THRESHOLD_NS) {
+                try {
+                    Thread.sleep((remaining - SPIN_THRESHOLD_NS) / 1_000_000L);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            long now;
+            while ((now = System.nanoTime()) - deadline < 0) {
+                Thread.onSpinWait();
+            }
+            return now;
+        }
+    }
+
+    static final class AdaptivePark extends FramePacer {
+        private long slackNs = 500_000L;
+
+        AdaptivePark(long frameNs) {
+            super(frameNs);
+        }
+
+        @Override
+        String name() { return "park"; }
+
+        // Parks short of the deadline by the learned oversleep, then yields out the remainder. The slack
+        // jumps up to any larger oversleep immediately and decays by 1/16 per frame otherwise.
+        @Override
+        long waitUntil(long deadline) {
+            long target = deadline - slackNs;
+            long now = System.nanoTime();
+            if (target - now > 0) {
+                LockSupport.parkNanos(this, target - now);
+                now = System.nanoTime();
+                long oversleep = now - target;
+                if (oversleep > slackNs) {
+                    slackNs = Math.min(oversleep, MAX_SLACK_NS);
+                } else {
+                    slackNs += (oversleep - slackNs) / 16;
+                }
+            }
+            while (now - deadline < 0) {
+                Thread.yield();
+                now = System.nanoTime();
+            }
+            return now;
+        }
+    }
+
+    static final class Uncapped extends FramePacer {
+        Uncapped(long frameNs) {
+            super(frameNs);
+        }
+
+        @Override
+        String name() { return "uncapped"; }
+
+        @Override
+        long waitUntil(long deadline) {
+            return System.nanoTime();
+        }
+
+        @Override
+        public long sync() {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+class FrameStats {
+    private static final long WINDOW_NS = 500_000_000L;
+    private static final long PERCENTILE_WINDOW_NS = 10_000_000_000L;
+    private static final String[] COLLECTING = {"frame stats: collecting..."};
+    private static final Color PANEL_COLOR = new Color(0, 0, 0, 160);
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+    private static final int LINE_HEIGHT = 14;
+    private static final int PANEL_WIDTH = 380;
+
+    private final LatencyHistogram frameTimes = new LatencyHistogram();
+    private final LatencyHistogram inputLatency = new LatencyHistogram();
+    private final LatencyHistogram pacingErrors = new LatencyHistogram();
+    private String pacerName = "none";
+    private long drawSubmitted, drawCulled, drawOverflowed, drawBatches;
+    private double renderScale = 1.0;
+    private int renderWidth = GameWorld.WIDTH;
+    private int renderHeight = GameWorld.HEIGHT;
+    private long levelMisses = 0;
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private final FrameCsvWriter csv;
+    private volatile boolean visible = false;
+
+    private long frameCount = 0;
+    private long windowStart = 0;
+    private long percentileStart = 0;
+    private int windowFrames = 0;
+    private long frameMax, pacingMax;
+    private long updateSum, renderSum, presentSum;
+    private long updateMax, renderMax, presentMax;
+    private long gcBaseCount = -1;
+    private long gcBaseTimeMs = 0;
+    private long gcCount = 0;
+    private long gcTimeMs = 0;
+    private long gcWindowStartCount = 0;
+    private volatile String[] lines = COLLECTING;
+
+    FrameStats(String csvPath) {
+        csv = (csvPath != null && !csvPath.isEmpty()) ? new FrameCsvWriter(csvPath) : null;
+        pollGc();
+    }
+
+    public void toggle() {
+        if (!visible) {
+            lines = COLLECTING;
+        }
+        visible = !visible;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void record(long frameStartNs, long updateNs, long renderNs, long presentNs, long frameNs) {
+        frameCount++;
+        if (windowStart == 0) {
+            windowStart = frameStartNs;
+            percentileStart = frameStartNs;
+        }
+        frameTimes.record(frameNs);
+        frameMax = Math.max(frameMax, frameNs);
+        windowFrames++;
+        updateSum += updateNs;
+        renderSum += renderNs;
+        presentSum += presentNs;
+        updateMax = Math.max(updateMax, updateNs);
+        renderMax = Math.max(renderMax, renderNs);
+        presentMax = Math.max(presentMax, presentNs);
+
+        if (csv != null) {
+            csv.offer(frameCount, frameStartNs, updateNs, renderNs, presentNs, frameNs, gcCount);
+        }
+
+        long windowNs = frameStartNs - windowStart;
+        if (windowNs >= WINDOW_NS) {
+            pollGc();
+            if (visible) {
+                publish(windowNs);
+            }
+            windowStart = frameStartNs;
+            windowFrames = 0;
+            updateSum = renderSum = presentSum = 0;
+            drawSubmitted = drawCulled = drawOverflowed = drawBatches = 0;
+            updateMax = renderMax = presentMax = 0;
+            frameMax = pacingMax = 0;
+            gcWindowStartCount = gcCount;
+            // Percentiles need more samples than one window holds, so they cover the last ~10 s instead.
+            if (frameStartNs - percentileStart >= PERCENTILE_WINDOW_NS) {
+                percentileStart = frameStartNs;
+                frameTimes.reset();
+                pacingErrors.reset();
+            }
+        }
+    }
+
+    public void setPacerName(String name) {
+        pacerName = name;
+    }
+
+    public void recordRenderScale(double scale, int width, int height) {
+        renderScale = scale;
+        renderWidth = width;
+        renderHeight = height;
+    }
+
+    // Level chunks the sim had to build itself because the stream had not prepared them in time, this run.
+    public void recordLevelMisses(long misses) {
+        levelMisses = misses;
+    }
+
+    // Per-frame render queue counters, averaged over the stats window.
+    public void recordDrawCounts(int submitted, int culled, int overflowed, int batches) {
+        drawSubmitted += submitted;
+        drawCulled += culled;
+        drawOverflowed += overflowed;
+        drawBatches += batches;
+    }
+
+    // How late the frame pacer woke relative to its deadline; only frames that actually waited are recorded.
+    public void recordPacingError(long errorNs) {
+        pacingErrors.record(errorNs);
+        pacingMax = Math.max(pacingMax, errorNs);
+    }
+
+    // Time from the key event to the end of the first present() whose snapshot includes the tick that applied it.
+    public void recordInputLatency(long latencyNs) {
+        inputLatency.record(latencyNs);
+    }
+
+    public void logInputLatency(long droppedInputs) {
+        if (inputLatency.count() > 0) {
+            System.out.printf("Input-to-photon: %d events, p50 %.2f p99 %.2f max %.2f ms, %d dropped%n",
+                    inputLatency.count(), ms(inputLatency.percentile(50)), ms(inputLatency.percentile(99)),
+                    ms(inputLatency.max()), droppedInputs);
+        }
+        inputLatency.reset();
+    }
+
+    public void draw(Graphics2D g) {
+        if (!visible) {
+            return;
+        }
+        String[] text = lines;
+        int x = GameWorld.WIDTH - PANEL_WIDTH - 8;
+        int y = 8;
+        g.setColor(PANEL_COLOR);
+        g.fillRect(x, y, PANEL_WIDTH, text.length * LINE_HEIGHT + 8);
+        g.setFont(FONT);
+        g.setColor(Color.WHITE);
+        for (int i = 0; i < text.length; i++) {
+            g.drawString(text[i], x + 6, y + 4 + (i + 1) * LINE_HEIGHT - 3);
+        }
+    }
+
+    public void close() {
+        if (csv != null) {
+            csv.close();
+        }
+    }
+
+    private void publish(long windowNs) {
+        double n = Math.max(1, windowFrames);
+        String[] next = {
+            String.format("fps %6.1f   frames %d", windowFrames * 1e9 / windowNs, frameCount),
+            String.format("frame p50 %6.2f p99 %6.2f (10s) max %6.2f ms", ms(frameTimes.percentile(50)), ms(frameTimes.percentile(99)), ms(frameMax)),
+            String.format("update  avg %6.2f max %6.2f ms", ms(updateSum / n), ms(updateMax)),
+            String.format("render  avg %6.2f max %6.2f ms", ms(renderSum / n), ms(renderMax)),
+            String.format("present avg %6.2f max %6.2f ms", ms(presentSum / n), ms(presentMax)),
+            String.format("draw %5.1f submitted %5.1f culled %4.1f batches", drawSubmitted / n, drawCulled / n, drawBatches / n)
+                    + ((drawOverflowed > 0) ? String.format(" %d OVERFLOW", drawOverflowed) : ""),
+            String.format("scale %3.0f%%  internal %dx%d   level misses %d", renderScale * 100, renderWidth, renderHeight, levelMisses),
+            String.format("pace %-5s p50 %4.0f p99 %4.0f (10s) max %5.0f us", pacerName, us(pacingErrors.percentile(50)), us(pacingErrors.percentile(99)), us(pacingMax)),
+            String.format("input   p50 %6.2f p99 %6.2f max %6.2f ms", ms(inputLatency.percentile(50)), ms(inputLatency.percentile(99)), ms(inputLatency.max())),
+            String.format("gc %d (+%d) %d ms total", gcCount, gcCount - gcWindowStartCount, gcTimeMs),
+            (csv != null && csv.droppedCount() > 0) ? "csv dropped " + csv.droppedCount() : "",
+        };
+        lines = next;
+    }
+
+    private void pollGc() {
+        long count = 0;
+        long time = 0;
+        for (int i = 0; i < collectors.size(); i++) {
+            GarbageCollectorMXBean gc = collectors.get(i);
+            count += Math.max(0, gc.getCollectionCount());
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        if (gcBaseCount < 0) {
+            gcBaseCount = count;
+            gcBaseTimeMs = time;
+        }
+        gcCount = count - gcBaseCount;
+        gcTimeMs = time - gcBaseTimeMs;
+    }
+
+    private static double ms(double nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static double us(double nanos) {
+        return nanos / 1_000.0;
+    }
+}
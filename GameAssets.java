@@ -0,0 +1,188 @@
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+class GameAssets {
+    BufferedImage playerImage;
+    BufferedImage obstacleImage;
+    BufferedImage[] jumpObstacleImages;
+    BufferedImage[] slideObstacleImages;
+    BufferedImage gift1Image;
+    BufferedImage gift2Image;
+    BufferedImage[] playerRunFrames;
+    BufferedImage[] playerJumpFrames;
+    BufferedImage[] playerSlideFrames;
+    BufferedImage[] playerSlideVisualFrames;
+    BufferedImage[] playerIdleFrames;
+    BufferedImage backgroundImage;
+    BufferedImage startButtonImage;
+    BufferedImage exitButtonImage;
+    BufferedImage tryAgainButtonImage;
+    volatile SpriteAtlas atlas;
+    volatile ImageAccelerator.VolatileCopy backgroundVolatile;
+    final Map<BufferedImage, CollisionMask> collisionMasks = new IdentityHashMap<>();
+
+    static GameAssets loadAll() {
+        return AssetLoader.start().gameplay().join();
+    }
+
+    boolean validateVolatileImages(GraphicsConfiguration gc) {
+        SpriteAtlas currentAtlas = atlas;
+        ImageAccelerator.VolatileCopy background = backgroundVolatile;
+        boolean restored = currentAtlas != null && currentAtlas.validate(gc);
+        if (background != null) {
+            restored |= background.validate(gc);
+        }
+        return restored;
+    }
+
+    boolean volatileContentsLost() {
+        SpriteAtlas currentAtlas = atlas;
+        ImageAccelerator.VolatileCopy background = backgroundVolatile;
+        return (currentAtlas != null && currentAtlas.contentsLost()) || (background != null && background.contentsLost());
+    }
+
+    Image backgroundSurface() {
+        ImageAccelerator.VolatileCopy background = backgroundVolatile;
+        return (background != null) ? background.image() : backgroundImage;
+    }
+
+    void drawSprite(Graphics2D g, BufferedImage image, int x, int y, int w, int h) {
+        SpriteAtlas currentAtlas = atlas;
+        if (currentAtlas != null) {
+            currentAtlas.draw(g, image, x, y, w, h);
+        } else {
+            g.drawImage(image, x, y, w, h, null);
+        }
+    }
+
+    void logAcceleration(GraphicsConfiguration gc) {
+        if (gc == null) {
+            return;
+        }
+        StringBuilder accelerated = new StringBuilder();
+        StringBuilder software = new StringBuilder();
+        describe(accelerated, software, "background", backgroundSurface(), backgroundImage, gc);
+        SpriteAtlas currentAtlas = atlas;
+        if (currentAtlas != null) {
+            for (int i = 0; i < currentAtlas.getSheets().size(); i++) {
+                describe(accelerated, software, "atlas" + i, currentAtlas.sheetImage(i), currentAtlas.getSheets().get(i), gc);
+            }
+        }
+        describe(accelerated, software, "start", startButtonImage, startButtonImage, gc);
+        describe(accelerated, software, "exit", exitButtonImage, exitButtonImage, gc);
+        describe(accelerated, software, "tryAgain", tryAgainButtonImage, tryAgainButtonImage, gc);
+        System.out.println("ImageAccelerator: accelerated [" + accelerated + "] software [" + software + "]");
+    }
+
+    private static void describe(StringBuilder accelerated, StringBuilder software, String name, Image drawn, BufferedImage source, GraphicsConfiguration gc) {
+        if (drawn == null) {
+            return;
+        }
+        StringBuilder out = ImageAccelerator.isAccelerated(drawn, gc) ? accelerated : software;
+        if (out.length() > 0) out.append(", ");
+        out.append(name).append(' ').append(ImageAccelerator.transparencyName(source.getTransparency()));
+    }
+
+    void buildAtlas(GraphicsConfiguration gc, boolean useVolatile) {
+        List<BufferedImage> sprites = new ArrayList<>();
+        addAll(sprites, playerRunFrames);
+        addAll(sprites, playerJumpFrames);
+        addAll(sprites, playerSlideFrames);
+        addAll(sprites, playerSlideVisualFrames);
+        addAll(sprites, playerIdleFrames);
+        addAll(sprites, jumpObstacleImages);
+        addAll(sprites, slideObstacleImages);
+        sprites.add(playerImage);
+        sprites.add(obstacleImage);
+        sprites.add(gift1Image);
+        sprites.add(gift2Image);
+        SpriteAtlas built = SpriteAtlas.build(sprites, gc);
+        if (useVolatile) {
+            built.enableVolatileSheets();
+            if (backgroundImage != null) {
+                backgroundVolatile = new ImageAccelerator.VolatileCopy(backgroundImage, backgroundImage.getTransparency());
+            }
+        }
+        atlas = built;
+        System.out.println("SpriteAtlas: packed " + built.getRegionCount() + " sprites into " + built.getSheets().size() + " sheet(s)");
+    }
+
+    void buildCollisionMasks() {
+        List<BufferedImage> sprites = new ArrayList<>();
+        addAll(sprites, playerRunFrames);
+        addAll(sprites, playerJumpFrames);
+        addAll(sprites, playerSlideVisualFrames);
+        addAll(sprites, jumpObstacleImages);
+        addAll(sprites, slideObstacleImages);
+        sprites.add(playerImage);
+        sprites.add(obstacleImage);
+        sprites.add(gift1Image);
+        sprites.add(gift2Image);
+        long bytes = 0;
+        for (BufferedImage img : sprites) {
+            if (img != null && !collisionMasks.containsKey(img)) {
+                CollisionMask mask = CollisionMask.of(img);
+                collisionMasks.put(img, mask);
+                bytes += (long) ((mask.getWidth() + 63) >>> 6) * mask.getHeight() * Long.BYTES;
+            }
+        }
+        System.out.println("CollisionMask: built " + collisionMasks.size() + " masks (" + bytes / 1024 + " KB)");
+    }
+
+    CollisionMask maskFor(BufferedImage image, int w, int h) {
+        if (image == null) {
+            return null;
+        }
+        CollisionMask mask = collisionMasks.get(image);
+        return (mask != null && mask.getWidth() == w && mask.getHeight() == h) ? mask : CollisionMask.of(image, w, h);
+    }
+
+    private static void addAll(List<BufferedImage> out, BufferedImage[] images) {
+        if (images != null) {
+            for (BufferedImage img : images) out.add(img);
+        }
+    }
+
+    static BufferedImage scaleToHeight(BufferedImage src, int targetHeight) {
+        int srcWidth = src.getWidth();
+        int srcHeight = src.getHeight();
+        if (srcHeight <= targetHeight) {
+            return src;
+        }
+        double scale = (double) targetHeight / srcHeight;
+        int targetWidth = (int) Math.round(srcWidth * scale);
+        Image scaled = src.getScaledInstance(targetWidth, targetHeight, Image.SCALE_SMOOTH);
+        BufferedImage dest = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = dest.createGraphics();
+        g2.drawImage(scaled, 0, 0, null);
+        g2.dispose();
+        return dest;
+    }
+
+    static BufferedImage scaleTo(BufferedImage src, int targetWidth, int targetHeight) {
+        BufferedImage dest = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = dest.createGraphics();
+        g2.drawImage(src, 0, 0, targetWidth, targetHeight, null);
+        g2.dispose();
+        return dest;
+    }
+
+    static BufferedImage scaleToHeightAllowUpscale(BufferedImage src, int targetHeight) {
+        int srcWidth = src.getWidth();
+        int srcHeight = src.getHeight();
+        double scale = (double) targetHeight / srcHeight;
+        int targetWidth = (int) Math.round(srcWidth * scale);
+        Image scaled = src.getScaledInstance(targetWidth, targetHeight, Image.SCALE_SMOOTH);
+        BufferedImage dest = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = dest.createGraphics();
+        g2.drawImage(scaled, 0, 0, null);
+        g2.dispose();
+        return dest;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,170 @@
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+class GameBenchmark {
+    private static final long WARMUP_NS = 1_000_000_000L;
+    private static final int MEASURE_ROUNDS = 5;
+    private static final long ROUND_NS = 200_000_000L;
+    private static final int[] ENTITY_COUNTS = {1, 16, 128, 1024};
+    private static final int[] STRESS_COUNTS = {1024, 4096};
+
+    private static volatile long sink;
+
+    interface Op {
+        long run();
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        String filter = (args.length > 0) ? args[0] : "";
+        GameAssets assets = GameAssets.loadAll();
+
+        System.out.printf("%-36s %14s %14s%n", "benchmark", "ns/op", "+/- ns/op");
+
+        for (int count : ENTITY_COUNTS) {
+            GameWorld world = populatedWorld(assets, count);
+            bench(filter, "world.tick/" + count, () -> {
+                world.tick(GameWorld.SIM_DT, 0);
+                return world.getScore();
+            });
+        }
+
+        for (int count : STRESS_COUNTS) {
+            GameWorld world = new GameWorld(assets);
+            world.setStressCount(count);
+            world.reset();
+            bench(filter, "world.tick.stress/" + count, () -> {
+                if (world.isGameOver()) {
+                    world.reset();
+                }
+                world.tick(GameWorld.SIM_DT, 0);
+                return world.getScore();
+            });
+        }
+
+        for (String mode : new String[] {"run", "jump", "slide"}) {
+            GameWorld world = new GameWorld(assets);
+            world.reset();
+            Player player = world.getPlayer();
+            if (mode.equals("slide")) {
+                player.startSlide();
+            }
+            bench(filter, "player.update/" + mode, () -> {
+                if (mode.equals("jump") && player.isOnGround()) {
+                    player.jump();
+                }
+                player.update(GameWorld.SIM_DT);
+                return player.getHeight();
+            });
+        }
+
+        GameWorld boundsWorld = populatedWorld(assets, 1);
+        Player boundsPlayer = boundsWorld.getPlayer();
+        Player boundsOther = new Player(boundsPlayer.getX() + 10, boundsPlayer.getY(), assets.playerRunFrames, assets.playerJumpFrames, assets.playerSlideFrames);
+        bench(filter, "sprite.getBounds", () -> boundsOther.getBounds().width);
+        bench(filter, "sprite.getBounds.intersects", () -> boundsPlayer.getBounds().intersects(boundsOther.getBounds()) ? 1 : 0);
+        bench(filter, "sprite.intersects", () -> boundsPlayer.intersects(boundsOther) ? 1 : 0);
+
+        if (assets.playerRunFrames != null && assets.jumpObstacleImages != null) {
+            CollisionMask playerMask = assets.collisionMasks.get(assets.playerRunFrames[0]);
+            CollisionMask obstacleMask = assets.collisionMasks.get(assets.jumpObstacleImages[0]);
+            int ox = playerMask.getWidth() / 2;
+            int oy = playerMask.getHeight() - obstacleMask.getHeight();
+            bench(filter, "mask.overlaps", () -> CollisionMask.overlaps(playerMask, 0, 0, playerMask.getWidth(), playerMask.getHeight(),
+                    obstacleMask, ox, oy, obstacleMask.getWidth(), obstacleMask.getHeight()) ? 1 : 0);
+        }
+
+        BufferedImage raw = readRaw("Player/Run/Run1.png");
+        if (raw != null) {
+            bench(filter, "assets.scaleToHeight", () -> GameAssets.scaleToHeight(raw, GameWorld.PLAYER_TARGET_HEIGHT).getWidth());
+            bench(filter, "assets.scaleToHeightAllowUpscale", () -> GameAssets.scaleToHeightAllowUpscale(raw, GameWorld.JUMP_OBS_HEIGHT).getWidth());
+        }
+
+        for (int count : ENTITY_COUNTS) {
+            GameWorld world = populatedWorld(assets, count);
+            WorldRenderer renderer = new WorldRenderer(world);
+            WorldSnapshot snapshot = new WorldSnapshot();
+            BufferedImage target = new BufferedImage(GameWorld.WIDTH, GameWorld.HEIGHT, BufferedImage.TYPE_INT_RGB);
+            bench(filter, "render.offscreen/" + count, () -> {
+                Graphics2D g = target.createGraphics();
+                try {
+                    snapshot.capture(world);
+                    renderer.drawBackground(g, snapshot, 1.0);
+                    renderer.drawWorld(g, snapshot, 1.0);
+                    renderer.drawHud(g, snapshot);
+                } finally {
+                    g.dispose();
+                }
+                return target.getRGB(0, 0);
+            });
+        }
+    }
+
+    private static GameWorld populatedWorld(GameAssets assets, int count) {
+        GameWorld world = new GameWorld(assets);
+        world.reset();
+        Random random = new Random(42);
+        int jumpImages = (assets.jumpObstacleImages != null) ? assets.jumpObstacleImages.length : 1;
+        double minX = 300;
+        double maxX = GameWorld.WIDTH * 4;
+        for (int i = 0; i < count; i++) {
+            double x = (i == 0) ? maxX : minX + random.nextDouble() * (maxX - minX);
+            world.addObstacle(x, random.nextInt(jumpImages), 0.0);
+            double gx = minX + random.nextDouble() * (maxX - minX);
+            world.addGift(gx, 0, GameWorld.GiftType.GIFT1, 0.0);
+        }
+        return world;
+    }
+
+    private static BufferedImage readRaw(String path) throws IOException {
+        File f = new File(path);
+        return f.exists() ? ImageIO.read(f) : null;
+    }
+
+    private static void bench(String filter, String name, Op op) {
+        if (!name.contains(filter)) {
+            return;
+        }
+        long batch = 1;
+        long acc = 0;
+        long warmupEnd = System.nanoTime() + WARMUP_NS;
+        while (System.nanoTime() < warmupEnd) {
+            long t0 = System.nanoTime();
+            for (long i = 0; i < batch; i++) {
+                acc += op.run();
+            }
+            if (System.nanoTime() - t0 < ROUND_NS / 100) {
+                batch *= 2;
+            }
+        }
+
+        double[] results = new double[MEASURE_ROUNDS];
+        for (int r = 0; r < MEASURE_ROUNDS; r++) {
+            long ops = 0;
+            long t0 = System.nanoTime();
+            long elapsed;
+            do {
+                for (long i = 0; i < batch; i++) {
+                    acc += op.run();
+                }
+                ops += batch;
+                elapsed = System.nanoTime() - t0;
+            } while (elapsed < ROUND_NS);
+            results[r] = (double) elapsed / ops;
+        }
+        sink += acc;
+
+        double mean = 0;
+        for (double v : results) mean += v;
+        mean /= results.length;
+        double var = 0;
+        for (double v : results) var += (v - mean) * (v - mean);
+        double stdev = Math.sqrt(var / (results.length - 1));
+        System.out.printf("%-36s %14.1f %14.1f%n", name, mean, stdev);
+    }
+}
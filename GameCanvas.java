@@ -2,9 +2,14 @@ import java.awt.Canvas;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics2D;
-import java.awt.Image;
+import java.awt.GraphicsConfiguration;
 import java.awt.Point;
 import java.awt.Toolkit;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.HierarchyEvent;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.event.MouseAdapter;
@@ -13,125 +18,132 @@ import java.awt.image.BufferStrategy;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Random;
-
-import javax.imageio.ImageIO;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
  
 
 public class GameCanvas extends Canvas implements Runnable, KeyListener {
     private enum GameState { MENU, RUNNING, GAME_OVER_MENU }
-    public static final int WIDTH = 1024;
-    public static final int HEIGHT = 512;
+    public static final int WIDTH = GameWorld.WIDTH;
+    public static final int HEIGHT = GameWorld.HEIGHT;
     
-    public static final int GROUND_HEIGHT = 50;                
-    private static final int PLAYER_TARGET_HEIGHT = 120;       
-    private static final int JUMP_OBS_HEIGHT = 100;            
-    private static final int SLIDE_OBS_HEIGHT = 140;           
-    private static final int GIFT_HEIGHT = 70;                 
+    public static final int GROUND_HEIGHT = GameWorld.GROUND_HEIGHT;
 
     private static final int TARGET_FPS = 120;
     private static final long TARGET_FRAME_TIME_NS = 1_000_000_000L / TARGET_FPS;
-    
-    private static final int MIN_SPAWN_GAP_PX = 400;   
-    private static final double MIN_SPAWN_DELAY = 1.3; 
-    private static final double MAX_SPAWN_DELAY = 2.2; 
-    private static final double SLIDE_MIN_INTERVAL = 2.5; 
-    private static final double SLIDE_SPAWN_PROB = 0.45;   
-    private static final double BG_SCROLL_SPEED = 60.0;    
-    private static final double OBSTACLE_BASE_SPEED = -5.0;    
-    private static final double OBSTACLE_SPEED_VARIANCE = -2.0; 
-    private static final double GIFT_BASE_SPEED = -4.5;
-    private static final double GIFT_SPEED_VARIANCE = -1.5;
-    private static final double RECYCLE_JITTER_MIN_RATIO = 0.25; 
-    private static final double RECYCLE_JITTER_MAX_RATIO = 0.75;
-    
-    private static final double GIFT_CHECK_INTERVAL = 1.0; 
-    private static final int MAX_SIMULT_GIFTS = 2;
-    private static final double GIFT1_PROB = 0.4; 
-    private static final double GIFT2_PROB = 0.1; 
-
-    private Thread gameThread;
+    private static final double SIM_DT = GameWorld.SIM_DT;
+    private static final long SIM_DT_NS = 1_000_000_000L / GameWorld.SIM_HZ;
+    private static final int MAX_SIM_STEPS_PER_FRAME = 8;
+    private static final long MAX_FRAME_TIME_NS = 250_000_000L;
+    private static final long MENU_KEEPALIVE_NS = 1_000_000_000L;
+    private static final int BUTTON_NONE = 0;
+    private static final int BUTTON_START = 1;
+    private static final int BUTTON_EXIT = 2;
+    private static final Color HOVER_COLOR = new Color(255, 255, 255, 60);
+    private static final int STRESS_ENTITIES = Integer.getInteger("stickman.stress", 0);
+    private static final Long FIXED_SEED = Long.getLong("stickman.seed");
+    private static final String RECORD_DIR = System.getProperty("stickman.recordDir");
+    private static final String PACER_MODE = System.getProperty("stickman.pacer", "park");
+    static final String SCORE_FILE = System.getProperty("stickman.scoreFile", "scores.dat");
+    private static final String PLAYER_NAME = System.getProperty("stickman.player", System.getProperty("user.name", "player"));
+    private static final String MENU_BGM = "Sound/Menu.wav";
+    private static final String RUN_BGM = "Sound/Running.wav";
+    private static final int SHOWN_TOP_SCORES = 5;
+
+    private Thread renderThread;
+    private Thread simThread;
     private volatile boolean running = false;
+    private volatile boolean focused = true;
+    private volatile boolean suspended = false;
+    private volatile int hoveredButton = BUTTON_NONE;
+    private final AtomicBoolean redrawRequested = new AtomicBoolean(true);
     private BufferStrategy bufferStrategy;
     
-    private Player player;
-    private final List<Obstacle> obstacles = new ArrayList<>();
-    private final List<Gift> gifts = new ArrayList<>();
-    private final Random random = new Random();
-    private GameState state = GameState.MENU;
-    
-    private int score = 0;
-
-    private double spawnTimer = 0;
-    private double nextSpawnDelay = 1.5; 
-
-    private BufferedImage playerImage;
-    private BufferedImage obstacleImage;
-    private BufferedImage[] jumpObstacleImages;
-    private BufferedImage[] slideObstacleImages;
-    private BufferedImage gift1Image;
-    private BufferedImage gift2Image;
-    private BufferedImage[] playerRunFrames;
-    private BufferedImage[] playerJumpFrames;
-    private BufferedImage[] playerSlideFrames;
-    private BufferedImage[] playerIdleFrames;
+    private final AssetLoader loader;
+    private volatile GameAssets assets;
+    private volatile GameWorld world;
+    private WorldRenderer renderer;
+    private final TripleBuffer<WorldSnapshot> snapshots = new TripleBuffer<>(WorldSnapshot::new);
+    private final AtomicBoolean startRequested = new AtomicBoolean();
+    private boolean accelerationLogged = false;
+    private final InputQueue inputs = new InputQueue(64);
+    private final InputQueue appliedInputs = new InputQueue(256);
+    private long simTicks = 0;
+    private final FrameStats frameStats = new FrameStats(System.getProperty("stickman.frameCsv"));
+    private final FramePacer pacer = FramePacer.create(PACER_MODE, TARGET_FRAME_TIME_NS);
+    private final RenderTarget target = new RenderTarget(TARGET_FRAME_TIME_NS);
+    private long presentNanos = 0;
+    private long lastPresentEnd = 0;
+    private boolean runRendered = false;
+    private boolean drawnRunning = false;
+    private boolean drawnGameOver = false;
+    private boolean drawnWorld = false;
+    private int drawnIdleIndex = -1;
+    private final InputRecording recording = new InputRecording();
+    private volatile GameState state = GameState.MENU;
+
     private int idleIndex = 0;
-    private int idleTicker = 0;
-    private int idleFramesPerStep = 14;
-    private BufferedImage backgroundImage;
-    private double bgOffset = 0.0; 
-    private double timeSinceLastSlide = 999.0;
-    private double giftSpawnTimer = 0.0;
-    private boolean gift1Active = false;
-    private double gift1Timer = 0.0;
-    private static final double GIFT1_DURATION = 10.0;
-    private boolean gift2Active = false;
-    private double gift2Timer = 0.0;
-    private static final double GIFT2_DURATION = 5.0;
-    private static final double GIFT2_SPEED_MULTIPLIER = 2.0;
-    private double obstacleSpeedMultiplier = 1.0;
-    
-    
-    private BufferedImage startButtonImage;
-    private BufferedImage exitButtonImage;
-    private BufferedImage tryAgainButtonImage;
+    private double idleTimer = 0.0;
+    private static final double IDLE_FRAME_DURATION = 14.0 / 120.0;
     
     
     private final SoundManager sound = new SoundManager();
+    private final ScoreStore scores = new ScoreStore(SCORE_FILE);
 
         public GameCanvas() {
         setPreferredSize(new Dimension(WIDTH, HEIGHT));
         setIgnoreRepaint(true);
         addKeyListener(this);
-        addMouseListener(new MouseAdapter() {
+        MouseAdapter mouse = new MouseAdapter() {
             @Override
             public void mousePressed(MouseEvent e) {
                 handleMousePressed(e);
             }
+
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                setHoveredButton(buttonAt(target.toLogicalX(e.getX()), target.toLogicalY(e.getY())));
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setHoveredButton(BUTTON_NONE);
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+        addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusGained(FocusEvent e) {
+                focused = true;
+                updateSuspended();
+            }
+
+            @Override
+            public void focusLost(FocusEvent e) {
+                focused = false;
+                updateSuspended();
+            }
+        });
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                requestRedraw();
+            }
+        });
+        addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) {
+                updateSuspended();
+            }
         });
         setFocusable(true);
 
-    loadImages();
-
-        double playerX = 100;
-        int baseHeight = 60;
-        int playerHeight = baseHeight;
-        if (playerRunFrames != null && playerRunFrames.length > 0) {
-            playerHeight = playerRunFrames[0].getHeight();
-        } else if (playerImage != null) {
-            playerHeight = playerImage.getHeight();
-        }
-    double playerY = HEIGHT - playerHeight - GROUND_HEIGHT; 
-        if (playerRunFrames != null && playerRunFrames.length > 0) {
-            player = new Player(playerX, playerY, playerRunFrames, playerJumpFrames, playerSlideFrames);
-        } else {
-            player = new Player(playerX, playerY, playerImage);
-        }
+        loader = AssetLoader.start();
+        scores.setOnUpdate(this::requestRedraw);
         
-    sound.playBgmLoop("Sound/Menu.wav");
+    sound.preloadEffects("Sound", MENU_BGM, RUN_BGM);
+    sound.playBgmLoop(MENU_BGM);
     }
 
         public synchronized void start() {
@@ -141,518 +153,327 @@ public class GameCanvas extends Canvas implements Runnable, KeyListener {
         createBufferStrategy(2);
         bufferStrategy = getBufferStrategy();
         running = true;
-        gameThread = new Thread(this, "GameThread");
-        gameThread.setPriority(Thread.MAX_PRIORITY);
-        gameThread.start();
+        frameStats.setPacerName(pacer.name());
+        simThread = new Thread(this::simulate, "SimThread");
+        simThread.setPriority(Thread.MAX_PRIORITY);
+        simThread.start();
+        renderThread = new Thread(this, "RenderThread");
+        renderThread.setPriority(Thread.MAX_PRIORITY);
+        renderThread.start();
     }
 
-        @Override
-    public void run() {
-        long lastTime = System.nanoTime();
+    private void simulate() {
+        long nextTick = System.nanoTime() + SIM_DT_NS;
+        GameState publishedState = null;
+        int publishedIdle = -1;
         while (running) {
-            long frameStart = System.nanoTime();
-            double dt = (frameStart - lastTime) / 1_000_000_000.0;
-            lastTime = frameStart;
-
-            updateGame(dt);
-            renderGame();
-
-            long frameEnd = System.nanoTime();
-            long elapsed = frameEnd - frameStart;
-            long sleepTime = TARGET_FRAME_TIME_NS - elapsed;
-            if (sleepTime > 0) {
-                try {
-                    
-                    long ms = sleepTime / 1_000_000L;
-                    int ns = (int) (sleepTime % 1_000_000L);
-                    Thread.sleep(ms, ns);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
+            if (suspended) {
+                LockSupport.park(this);
+                continue;
+            }
+            long now = System.nanoTime();
+            if (now - nextTick > MAX_FRAME_TIME_NS) {
+                nextTick = now;
+            }
+            long simStart = now;
+            int steps = 0;
+            while (now - nextTick >= 0 && steps < MAX_SIM_STEPS_PER_FRAME) {
+                updateGame(SIM_DT);
+                nextTick += SIM_DT_NS;
+                steps++;
+            }
+            if (steps == MAX_SIM_STEPS_PER_FRAME && now - nextTick >= 0) {
+                
+                nextTick = now + SIM_DT_NS;
+            }
+            if (steps > 0) {
+                publishSnapshot(nextTick - SIM_DT_NS, System.nanoTime() - simStart);
+                if (state != publishedState || idleIndex != publishedIdle) {
+                    publishedState = state;
+                    publishedIdle = idleIndex;
+                    LockSupport.unpark(renderThread);
                 }
             }
+            long wait = nextTick - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+            }
         }
     }
 
-        private void loadImages() {
-        try {
-            
-            
-            
-            java.util.List<BufferedImage> frames = new java.util.ArrayList<>();
-            for (int i = 1; i <= 8; i++) {
-                File f = new File("Player/Run/Run" + i + ".png");
-                if (f.exists()) {
-                    BufferedImage raw = ImageIO.read(f);
-                    frames.add(scaleToHeight(raw, PLAYER_TARGET_HEIGHT));
-                }
-            }
-            if (!frames.isEmpty()) {
-                playerRunFrames = frames.toArray(new BufferedImage[0]);
-            } else {
-                
-                File playerFile = new File("Stickman.png");
-                if (playerFile.exists()) {
-                    BufferedImage raw = ImageIO.read(playerFile);
-                    playerImage = scaleToHeight(raw, PLAYER_TARGET_HEIGHT);
-                }
-            }
+    private void publishSnapshot(long stateNanos, long simNanos) {
+        WorldSnapshot snapshot = snapshots.writeSlot();
+        snapshot.publishNanos = stateNanos;
+        snapshot.simNanos = simNanos;
+        snapshot.simTick = simTicks;
+        snapshot.running = state == GameState.RUNNING;
+        snapshot.gameOverMenu = state == GameState.GAME_OVER_MENU;
+        snapshot.idleIndex = idleIndex;
+        GameWorld world = this.world;
+        if (world != null) {
+            snapshot.capture(world);
+        } else {
+            snapshot.hasWorld = false;
+        }
+        snapshots.publish();
+    }
 
-            
-            java.util.List<BufferedImage> jump = new java.util.ArrayList<>();
-            for (int i = 1; i <= 10; i++) {
-                File f = new File("Player/Jump/Jump" + i + ".png");
-                if (f.exists()) {
-                    BufferedImage raw = ImageIO.read(f);
-                    jump.add(scaleToHeight(raw, PLAYER_TARGET_HEIGHT));
-                }
+        @Override
+    public void run() {
+        long lastTime = System.nanoTime();
+        while (running) {
+            if (suspended) {
+                LockSupport.park(this);
+                lastTime = System.nanoTime();
+                continue;
             }
-            if (!jump.isEmpty()) {
-                playerJumpFrames = jump.toArray(new BufferedImage[0]);
+            WorldSnapshot snapshot = snapshots.read();
+            if (!snapshot.running && !menuChanged(snapshot)) {
+                LockSupport.parkNanos(this, MENU_KEEPALIVE_NS);
+                lastTime = System.nanoTime();
+                continue;
             }
+            long frameStart = System.nanoTime();
+            long frameNanos = frameStart - lastTime;
+            lastTime = frameStart;
 
-            
-            java.util.List<BufferedImage> slide = new java.util.ArrayList<>();
-            for (int i = 1; i <= 10; i++) {
-                File f = new File("Player/Slide/Slide" + i + ".png");
-                if (f.exists()) {
-                    BufferedImage raw = ImageIO.read(f);
-                    slide.add(scaleToHeight(raw, PLAYER_TARGET_HEIGHT));
-                }
-            }
-            if (!slide.isEmpty()) {
-                playerSlideFrames = slide.toArray(new BufferedImage[0]);
-            }
-            
-            
-            java.util.List<BufferedImage> idle = new java.util.ArrayList<>();
-            for (int i = 1; i <= 10; i++) {
-                File f = new File("Player/Idle/Idle" + i + ".png");
-                if (f.exists()) {
-                    BufferedImage raw = ImageIO.read(f);
-                    idle.add(scaleToHeight(raw, PLAYER_TARGET_HEIGHT));
-                }
-            }
-            if (idle.isEmpty()) {
-                
-                String[] candidates = new String[] {"Player/Idle/IDLE.png", "Player/Idle/Idle.png", "Player/Idle/idle.png", "Player/Idle/IDLE.PNG"};
-                for (String p : candidates) {
-                    File f = new File(p);
-                    if (f.exists()) {
-                        BufferedImage raw = ImageIO.read(f);
-                        idle.add(scaleToHeight(raw, PLAYER_TARGET_HEIGHT));
-                        break;
-                    }
-                }
+            double alpha = Math.max(0.0, Math.min(1.0, (frameStart - snapshot.publishNanos) / (double) SIM_DT_NS));
+            presentNanos = 0;
+            renderGame(snapshot, alpha);
+            drawnRunning = snapshot.running;
+            drawnGameOver = snapshot.gameOverMenu;
+            drawnWorld = snapshot.hasWorld;
+            drawnIdleIndex = snapshot.idleIndex;
+
+            long frameEnd = System.nanoTime();
+            if (snapshot.running) {
+                target.adapt(frameEnd - frameStart);
             }
-            if (!idle.isEmpty()) {
-                playerIdleFrames = idle.toArray(new BufferedImage[0]);
+            frameStats.record(frameStart, snapshot.simNanos, frameEnd - frameStart - presentNanos, presentNanos, frameNanos);
+            recordInputLatency(snapshot);
+            long pacingError = pacer.sync();
+            if (pacingError >= 0) {
+                frameStats.recordPacingError(pacingError);
             }
+        }
+    }
 
-            
-            
-            
-            File obstacleFile = new File("obstacle.png");
-            if (obstacleFile.exists()) {
-                BufferedImage raw = ImageIO.read(obstacleFile);
-                obstacleImage = scaleToHeight(raw, 100);
-            }
+    // Render thread: outside a run the screen only changes with the idle animation, the menu shown, hover,
+    // the overlay or loading progress, so the loop parks until one of those (or the keepalive) happens.
+    private boolean menuChanged(WorldSnapshot snapshot) {
+        boolean requested = redrawRequested.getAndSet(false);
+        return requested || assets == null || !snapshot.hasWorld || frameStats.isVisible()
+                || snapshot.running != drawnRunning || snapshot.gameOverMenu != drawnGameOver
+                || snapshot.hasWorld != drawnWorld || snapshot.idleIndex != drawnIdleIndex;
+    }
 
-            java.util.List<BufferedImage> jumpObs = new java.util.ArrayList<>();
-            for (int i = 1; i <= 3; i++) {
-                File jf = new File("Obstacle/Jump Obstacle/Jump Obstacle" + i + ".png");
-                if (!jf.exists() && i == 1) {
-                    jf = new File("Obstacle/Jump Obstacle/Jump Obstable1.png");
-                }
-                if (jf.exists()) {
-                    BufferedImage raw = ImageIO.read(jf);
-                    jumpObs.add(scaleToHeightAllowUpscale(raw, JUMP_OBS_HEIGHT));
-                }
-            }
-            if (!jumpObs.isEmpty()) {
-                jumpObstacleImages = jumpObs.toArray(new BufferedImage[0]);
-            }
+    private void requestRedraw() {
+        redrawRequested.set(true);
+        LockSupport.unpark(renderThread);
+    }
 
-            java.util.List<BufferedImage> slideObs = new java.util.ArrayList<>();
-            for (int i = 1; i <= 3; i++) {
-                File sf = new File("Obstacle/Slide Obstacle/Slide Obstacle" + i + ".png");
-                if (sf.exists()) {
-                    BufferedImage raw = ImageIO.read(sf);
-                    slideObs.add(scaleToHeightAllowUpscale(raw, SLIDE_OBS_HEIGHT));
-                }
-            }
-            if (!slideObs.isEmpty()) {
-                slideObstacleImages = slideObs.toArray(new BufferedImage[0]);
-            }
-            
-            
-            File g1 = new File("Gift/Gift1.png");
-            if (g1.exists()) {
-                BufferedImage raw = ImageIO.read(g1);
-                gift1Image = scaleToHeightAllowUpscale(raw, GIFT_HEIGHT);
-            }
-            File g2 = new File("Gift/Gift2.png");
-            if (g2.exists()) {
-                BufferedImage raw = ImageIO.read(g2);
-                gift2Image = scaleToHeightAllowUpscale(raw, GIFT_HEIGHT);
-            }
-            
-            File bgFile = new File("Background.png");
-            if (!bgFile.exists()) {
-                bgFile = new File("Background.jpg");
-            }
-            if (bgFile.exists()) {
-                BufferedImage rawBg = ImageIO.read(bgFile);
-                backgroundImage = scaleToHeight(rawBg, HEIGHT);
-            }
-            
-            
-            File sb = new File("START.png");
-            if (sb.exists()) {
-                startButtonImage = ImageIO.read(sb);
-            }
-            File eb = new File("EXIT.png");
-            if (eb.exists()) {
-                exitButtonImage = ImageIO.read(eb);
-            }
-            
-            File tab = new File("TRY AGAIN.png");
-            if (!tab.exists()) tab = new File("Try Again.png");
-            if (!tab.exists()) tab = new File("TRY_AGAIN.png");
-            if (tab.exists()) {
-                tryAgainButtonImage = ImageIO.read(tab);
-            }
-        } catch (IOException e) {
-            
-            System.err.println("Failed to load images: " + e.getMessage());
-            playerImage = null;
-            obstacleImage = null;
-        }
-    }
-
-        private static BufferedImage scaleToHeight(BufferedImage src, int targetHeight) {
-        int srcWidth = src.getWidth();
-        int srcHeight = src.getHeight();
-        if (srcHeight <= targetHeight) {
-            return src;
-        }
-        double scale = (double) targetHeight / srcHeight;
-        int targetWidth = (int) Math.round(srcWidth * scale);
-        Image scaled = src.getScaledInstance(targetWidth, targetHeight, Image.SCALE_SMOOTH);
-        BufferedImage dest = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2 = dest.createGraphics();
-        g2.drawImage(scaled, 0, 0, null);
-        g2.dispose();
-        return dest;
-    }
-        private static BufferedImage scaleToHeightAllowUpscale(BufferedImage src, int targetHeight) {
-            int srcWidth = src.getWidth();
-            int srcHeight = src.getHeight();
-            double scale = (double) targetHeight / srcHeight;
-            int targetWidth = (int) Math.round(srcWidth * scale);
-            Image scaled = src.getScaledInstance(targetWidth, targetHeight, Image.SCALE_SMOOTH);
-            BufferedImage dest = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_ARGB);
-            Graphics2D g2 = dest.createGraphics();
-            g2.drawImage(scaled, 0, 0, null);
-            g2.dispose();
-            return dest;
+    // Hidden or unfocused: both threads park, so the run is paused and nothing is drawn until focus returns.
+    private void updateSuspended() {
+        boolean suspend = !focused || !isShowing();
+        if (suspend == suspended) {
+            return;
+        }
+        suspended = suspend;
+        if (!suspend) {
+            LockSupport.unpark(simThread);
+            requestRedraw();
         }
-        private void updateGame(double dt) {
-        
-    if (state != GameState.RUNNING) {
-        updateIdleAnim();
-        return;
     }
 
-    player.update();
-    timeSinceLastSlide += dt;
-    
-    if (backgroundImage != null) {
-        bgOffset += BG_SCROLL_SPEED * dt;
-        double bw = backgroundImage.getWidth();
-        if (bw > 0) {
-            bgOffset = bgOffset % bw;
+        private void updateGame(double dt) {
+        simTicks++;
+        if (world == null) {
+            pollAssets();
         }
-    }
-    
-    
-    if (gift1Active) {
-        gift1Timer -= dt;
-        if (gift1Timer <= 0) {
-            gift1Active = false;
-            gift1Timer = 0.0;
-            player.resetJumpPhysics();
+        if (startRequested.getAndSet(false) && world != null && state != GameState.RUNNING) {
+            startNewRun();
+        }
+        int bits = drainInputs();
+        if (state != GameState.RUNNING) {
+            updateIdleAnim(dt);
+            return;
         }
+        if (bits != 0) {
+            recording.record(world.getTickCount(), bits);
+        }
+        world.tick(dt, bits);
     }
 
-    
-    if (gift2Active) {
-        gift2Timer -= dt;
-        if (gift2Timer <= 0) {
-            
-            gift2Active = false;
-            gift2Timer = 0.0;
-            obstacleSpeedMultiplier = 1.0;
-            player.setRunAnimSpeedMultiplier(1.0);
-            obstacles.clear();
-            
-            spawnTimer = 0.0;
-            nextSpawnDelay = MIN_SPAWN_DELAY + random.nextDouble() * (MAX_SPAWN_DELAY - MIN_SPAWN_DELAY);
+    // Sim thread: folds every queued key event into this tick's input bits and hands its timestamp to the
+    // render thread, which measures input-to-photon latency once a presented snapshot includes this tick.
+    private int drainInputs() {
+        int bits = 0;
+        boolean inRun = state == GameState.RUNNING;
+        while (inputs.poll()) {
+            if (inRun) {
+                bits |= inputs.input();
+                appliedInputs.offer(inputs.input(), inputs.nanos(), simTicks);
+            }
         }
+        return bits;
     }
 
-        
-        double rollingRightmost = getRightmostObstacleRight();
-        Iterator<Obstacle> iter = obstacles.iterator();
-        while (iter.hasNext()) {
-            Obstacle obs = iter.next();
-            obs.update();
-
-            if (player.getBounds().intersects(obs.getBounds())) {
-                if (!gift2Active) {
-                    gameOver();
-                    return;
-                }
+    // Render thread: everything applied up to snapshot.simTick has been shown by the present() that just returned.
+    private void recordInputLatency(WorldSnapshot snapshot) {
+        if (runRendered && !snapshot.running) {
+            frameStats.logInputLatency(inputs.droppedCount());
+        }
+        runRendered = snapshot.running;
+        while (appliedInputs.peek() && appliedInputs.tick() <= snapshot.simTick) {
+            if (snapshot.running) {
+                frameStats.recordInputLatency(lastPresentEnd - appliedInputs.nanos());
             }
+            appliedInputs.remove();
+        }
+    }
 
-            if (obs.getX() + obs.getWidth() < 0) {
-                score++;
-                
-                double baseSpawn = Math.max(WIDTH, rollingRightmost + MIN_SPAWN_GAP_PX);
-                double jitter = MIN_SPAWN_GAP_PX * (RECYCLE_JITTER_MIN_RATIO + random.nextDouble() * (RECYCLE_JITTER_MAX_RATIO - RECYCLE_JITTER_MIN_RATIO));
-                double newX = baseSpawn + jitter;
-                obs.setX(newX);
-                
-                rollingRightmost = Math.max(rollingRightmost, newX + obs.getWidth());
-            }
+    private void pollAssets() {
+        if (assets == null && loader.menu().isDone()) {
+            assets = loader.menu().join();
         }
-        
-        spawnTimer += dt;
-            if (spawnTimer >= nextSpawnDelay) {
-                if (hasSpawnClearance()) {
-                    spawnTimer = 0;
-                    nextSpawnDelay = MIN_SPAWN_DELAY + random.nextDouble() * (MAX_SPAWN_DELAY - MIN_SPAWN_DELAY);
-                    spawnObstacle();
-                } else {
-                    
-                    spawnTimer = nextSpawnDelay;
+        if (loader.gameplay().isDone()) {
+            GameWorld loaded = new GameWorld(loader.gameplay().join());
+            loaded.setStressCount(STRESS_ENTITIES);
+            loaded.startBackgroundLevelGeneration();
+            loaded.setListener(new GameWorld.Listener() {
+                @Override
+                public void onCollision() {
+                    gameOver();
                 }
-            }
+            });
+            world = loaded;
+        }
+    }
 
-        
-        Iterator<Gift> git = gifts.iterator();
-        while (git.hasNext()) {
-            Gift gift = git.next();
-            gift.update();
-            
-            if (!gift.isCollected() && player.getBounds().intersects(gift.getBounds())) {
-                gift.markCollected();
-                
-                if (gift.getType() == Gift.Type.GIFT1) {
-                    
-                    gift1Active = true;
-                    gift1Timer = GIFT1_DURATION; 
-                    player.applyGift1JumpBoost(0.3, -12.0);
-                } else if (gift.getType() == Gift.Type.GIFT2) {
-                    
-                    if (!gift2Active) {
-                        gift2Active = true;
-                        gift2Timer = GIFT2_DURATION;
-                        obstacleSpeedMultiplier = GIFT2_SPEED_MULTIPLIER;
-                        player.setRunAnimSpeedMultiplier(3.0);
-                        for (Obstacle o : obstacles) {
-                            o.setSpeedX(o.getSpeedX() * GIFT2_SPEED_MULTIPLIER);
-                        }
-                    } else {
-                        
-                        gift2Timer = GIFT2_DURATION;
-                    }
-                }
-            }
-            
-            if (gift.isCollected() || gift.getX() + gift.getWidth() < 0) {
-                git.remove();
-            }
+        private void renderGame(WorldSnapshot snapshot, double alpha) {
+        GameAssets assets = this.assets;
+        GameWorld world = this.world;
+        if (renderer == null && world != null && assets != null) {
+            renderer = new WorldRenderer(world);
         }
+        boolean hasWorld = snapshot.hasWorld && renderer != null;
+        do {
+            do {
+                GraphicsConfiguration gc = getGraphicsConfiguration();
+                do {
+                    if (assets != null) {
+                        assets.validateVolatileImages(gc);
+                    }
+                    Graphics2D g = target.begin(gc);
+                    try {
+                        drawScene(g, assets, snapshot, alpha, hasWorld);
+                    } finally {
+                        g.dispose();
+                    }
+                } while (target.contentsLost() || (assets != null && assets.volatileContentsLost()));
 
-        
-        giftSpawnTimer += dt;
-        if (giftSpawnTimer >= GIFT_CHECK_INTERVAL) {
-            giftSpawnTimer -= GIFT_CHECK_INTERVAL;
-            if (gifts.size() < MAX_SIMULT_GIFTS && hasSpawnClearance()) {
-                double r = random.nextDouble();
-                if (r < GIFT2_PROB && gift2Image != null) {
-                    spawnGift(Gift.Type.GIFT2);
-                } else if (r < (GIFT2_PROB + GIFT1_PROB) && gift1Image != null) {
-                    spawnGift(Gift.Type.GIFT1);
+                Graphics2D g = (Graphics2D) bufferStrategy.getDrawGraphics();
+                try {
+                    target.blit(g, getWidth(), getHeight());
+                    target.applyViewTransform(g);
+                    frameStats.draw(g);
+                } finally {
+                    g.dispose();
                 }
-            }
+            } while (bufferStrategy.contentsRestored());
+            present();
+        } while (bufferStrategy.contentsLost());
+        frameStats.recordRenderScale(target.getScale(), target.getWidth(), target.getHeight());
+        if (hasWorld) {
+            frameStats.recordLevelMisses(snapshot.levelMisses);
+        }
+        if (snapshot.running && hasWorld) {
+            RenderQueue queue = renderer.getQueue();
+            frameStats.recordDrawCounts(queue.getSubmittedCount(), queue.getCulledCount(), queue.getOverflowCount(),
+                    queue.getBatchCount());
         }
 
-        
-    }
-
-    private boolean hasSpawnClearance() {
-        
-        double rightmost = getRightmostObstacleRight();
-        return rightmost < (WIDTH - MIN_SPAWN_GAP_PX);
+        if (!accelerationLogged && hasWorld) {
+            accelerationLogged = true;
+            assets.logAcceleration(getGraphicsConfiguration());
+        }
     }
 
-    private double getRightmostObstacleRight() {
-        double rightmost = Double.NEGATIVE_INFINITY;
-        for (Obstacle o : obstacles) {
-            rightmost = Math.max(rightmost, o.getX() + o.getWidth());
+    // Draws in logical WIDTH x HEIGHT coordinates into the internal target.
+    private void drawScene(Graphics2D g, GameAssets assets, WorldSnapshot snapshot, double alpha, boolean hasWorld) {
+        if (assets == null) {
+            g.setColor(Color.BLACK);
+            g.fillRect(0, 0, WIDTH, HEIGHT);
+            drawLoadingBar(g);
+            return;
         }
-        if (rightmost == Double.NEGATIVE_INFINITY) {
-            return 0.0;
+        if (hasWorld) {
+            renderer.drawBackground(g, snapshot, snapshot.running ? alpha : 1.0);
+        } else {
+            WorldRenderer.drawBackground(g, assets, 0.0);
         }
-        return rightmost;
-    }
-
-        private void spawnObstacle() {
-    double x = WIDTH;
-    double y;
-    int desiredObstacleHeight;
-
-    boolean canSpawnSlide = timeSinceLastSlide >= SLIDE_MIN_INTERVAL && slideObstacleImages != null && slideObstacleImages.length > 0;
-    boolean spawnSlide = canSpawnSlide && random.nextDouble() < SLIDE_SPAWN_PROB;
 
-        BufferedImage chosenImage;
-        if (spawnSlide) {
-            chosenImage = slideObstacleImages[random.nextInt(slideObstacleImages.length)];
-            desiredObstacleHeight = SLIDE_OBS_HEIGHT;
-            
-            
-            double standingTopY = HEIGHT - GROUND_HEIGHT - PLAYER_TARGET_HEIGHT;
-            double slideBottomTarget = standingTopY + (PLAYER_TARGET_HEIGHT * 0.45); 
-            y = slideBottomTarget - desiredObstacleHeight;
-            if (y < 0) y = 0;
+        if (snapshot.running && hasWorld) {
+            renderer.drawWorld(g, snapshot, alpha);
+            renderer.drawHud(g, snapshot);
         } else {
-            if (jumpObstacleImages != null && jumpObstacleImages.length > 0) {
-                chosenImage = jumpObstacleImages[random.nextInt(jumpObstacleImages.length)];
-            } else {
-                chosenImage = obstacleImage;
+            drawIdlePlayer(g, snapshot.idleIndex);
+            drawMenu(g, snapshot.gameOverMenu, snapshot.score);
+            if (!hasWorld) {
+                drawLoadingBar(g);
             }
-            desiredObstacleHeight = JUMP_OBS_HEIGHT;
-            int imgH = (chosenImage != null) ? desiredObstacleHeight : 60;
-            y = HEIGHT - imgH - GROUND_HEIGHT;
-        }
-
-    double speedX = (OBSTACLE_BASE_SPEED + random.nextDouble() * OBSTACLE_SPEED_VARIANCE) * obstacleSpeedMultiplier; 
-    Obstacle obs = new Obstacle(x, y, chosenImage, speedX, desiredObstacleHeight);
-        obstacles.add(obs);
-        if (spawnSlide) {
-            timeSinceLastSlide = 0.0;
         }
     }
 
-    private void spawnGift(Gift.Type type) {
-        double x = WIDTH;
-        BufferedImage img = (type == Gift.Type.GIFT1) ? gift1Image : gift2Image;
-        int gH = (img != null) ? img.getHeight() : 24;
-        
-        double clearance = 100; 
-    double y = HEIGHT - GROUND_HEIGHT - clearance - gH;
-        y = Math.max(0, y);
-    double speedX = (GIFT_BASE_SPEED + random.nextDouble() * GIFT_SPEED_VARIANCE) * obstacleSpeedMultiplier;
-        Gift gift = new Gift(x, y, img, speedX, type);
-        gifts.add(gift);
+    private void present() {
+        long start = System.nanoTime();
+        bufferStrategy.show();
+        Toolkit.getDefaultToolkit().sync();
+        lastPresentEnd = System.nanoTime();
+        presentNanos += lastPresentEnd - start;
     }
 
-        private void renderGame() {
-        do {
-            do {
-                Graphics2D g = (Graphics2D) bufferStrategy.getDrawGraphics();
-                try {
-                    
-                    
-                    if (backgroundImage != null) {
-                        int bw = backgroundImage.getWidth();
-                        if (bw <= 0) {
-                            g.setColor(Color.WHITE);
-                            g.fillRect(0, 0, WIDTH, HEIGHT);
-                        } else {
-                            
-                            double startX = - (bgOffset % bw);
-                            for (int i = 0; i <= WIDTH / bw + 1; i++) {
-                                int drawX = (int) Math.round(startX + i * bw);
-                                g.drawImage(backgroundImage, drawX, 0, null);
-                            }
-                        }
-                    } else {
-                        g.setColor(Color.WHITE);
-                        g.fillRect(0, 0, WIDTH, HEIGHT);
-                    }
-
-                    
-                    g.setColor(new Color(220, 220, 220));
-                    g.fillRect(0, HEIGHT - GROUND_HEIGHT, WIDTH, GROUND_HEIGHT);
-
-                    if (state == GameState.RUNNING) {
-                        player.draw(g);
-                        for (Obstacle obs : obstacles) obs.draw(g);
-                        for (Gift gift : gifts) gift.draw(g);
-                        g.setColor(Color.BLACK);
-                        g.setFont(g.getFont().deriveFont(18f));
-                        g.drawString("Score: " + score, 10, 20);
-                        
-                        int hudY = 40;
-                        g.setFont(g.getFont().deriveFont(16f));
-                        if (gift1Active) {
-                            g.drawString("G1: " + formatSeconds(gift1Timer), 10, hudY);
-                            hudY += 20;
-                        }
-                        if (gift2Active) {
-                            g.drawString("G2: " + formatSeconds(gift2Timer), 10, hudY);
-                        }
-                    } else {
-                        drawIdlePlayer(g);
-                        drawMenu(g, state == GameState.GAME_OVER_MENU);
-                    }
-                } finally {
-                    g.dispose();
-                }
-                
-                
-            } while (bufferStrategy.contentsRestored());
-            
-            bufferStrategy.show();
-            Toolkit.getDefaultToolkit().sync();
-            
-            
-        } while (bufferStrategy.contentsLost());
+    private void drawLoadingBar(Graphics2D g) {
+        int barW = 260;
+        int barH = 10;
+        int barX = WIDTH / 2 - barW / 2;
+        int barY = HEIGHT - GROUND_HEIGHT - 30;
+        g.setColor(new Color(0, 0, 0, 120));
+        g.fillRect(barX, barY, barW, barH);
+        g.setColor(Color.WHITE);
+        g.fillRect(barX, barY, (int) Math.round(barW * loader.progress()), barH);
+        g.drawRect(barX, barY, barW, barH);
     }
 
         private void gameOver() {
         
         state = GameState.GAME_OVER_MENU;
-        obstacles.clear();
-        gifts.clear();
-            gift1Active = false;
-            gift1Timer = 0.0;
-        gift2Active = false;
-        gift2Timer = 0.0;
-        obstacleSpeedMultiplier = 1.0;
-        player.resetJumpPhysics();
-            player.setRunAnimSpeedMultiplier(1.0);
+        scores.submit(PLAYER_NAME, world.getScore(), world.getTickCount(), world.getSeed());
+        saveRecording();
             
         sound.playSfx("Sound/Lose.wav");
-        sound.playBgmLoop("Sound/Menu.wav");
+        sound.playBgmLoop(MENU_BGM);
     }
 
     
     @Override
     public void keyPressed(KeyEvent e) {
         int code = e.getKeyCode();
+        if (code == KeyEvent.VK_F3) {
+            frameStats.toggle();
+            requestRedraw();
+            return;
+        }
         if (state != GameState.RUNNING) return;
 
-        if ((code == KeyEvent.VK_SPACE || code == KeyEvent.VK_UP) && player.isOnGround()) {
-            player.jump();
+        if (code == KeyEvent.VK_SPACE || code == KeyEvent.VK_UP) {
+            queueInput(GameWorld.INPUT_JUMP, e);
         }
         
         
         
         if (code == KeyEvent.VK_DOWN) {
-            player.startSlide();
+            queueInput(GameWorld.INPUT_SLIDE_START, e);
         }
     }
 
@@ -661,29 +482,42 @@ public class GameCanvas extends Canvas implements Runnable, KeyListener {
         int code = e.getKeyCode();
         if (state != GameState.RUNNING) return;
         if (code == KeyEvent.VK_DOWN) {
-            player.endSlide();
+            queueInput(GameWorld.INPUT_SLIDE_END, e);
         }
     }
 
+    // EDT only. getWhen() is wall-clock milliseconds, so the time the event spent in the AWT queue is
+    // folded into the nanoTime stamp at millisecond resolution.
+    private void queueInput(int input, KeyEvent e) {
+        long now = System.nanoTime();
+        long queuedMs = Math.max(0, System.currentTimeMillis() - e.getWhen());
+        inputs.offer(input, now - queuedMs * 1_000_000L, 0);
+    }
+
     @Override
     public void keyTyped(KeyEvent e) {
         
     }
 
     
-    private void updateIdleAnim() {
+    private void updateIdleAnim(double dt) {
+        GameAssets assets = this.assets;
+        if (assets == null) return;
+        BufferedImage[] playerIdleFrames = assets.playerIdleFrames;
         if (playerIdleFrames == null || playerIdleFrames.length == 0) return;
-        idleTicker++;
-        if (idleTicker >= idleFramesPerStep) {
-            idleTicker = 0;
+        idleTimer += dt;
+        if (idleTimer >= IDLE_FRAME_DURATION) {
+            idleTimer -= IDLE_FRAME_DURATION;
             idleIndex = (idleIndex + 1) % playerIdleFrames.length;
         }
     }
 
-    private void drawIdlePlayer(Graphics2D g) {
+    private void drawIdlePlayer(Graphics2D g, int idleIndex) {
+        BufferedImage[] playerIdleFrames = assets.playerIdleFrames;
+        BufferedImage[] playerRunFrames = assets.playerRunFrames;
         BufferedImage frame = null;
         if (playerIdleFrames != null && playerIdleFrames.length > 0) {
-            frame = playerIdleFrames[idleIndex];
+            frame = playerIdleFrames[idleIndex % playerIdleFrames.length];
         } else if (playerRunFrames != null && playerRunFrames.length > 0) {
             frame = playerRunFrames[0];
         }
@@ -691,11 +525,11 @@ public class GameCanvas extends Canvas implements Runnable, KeyListener {
             int ph = frame.getHeight();
             double py = HEIGHT - GROUND_HEIGHT - ph;
             double px = WIDTH * 0.15;
-            g.drawImage(frame, (int)Math.round(px), (int)Math.round(py), frame.getWidth(), frame.getHeight(), null);
+            assets.drawSprite(g, frame, (int)Math.round(px), (int)Math.round(py), frame.getWidth(), frame.getHeight());
         }
     }
 
-    private void drawMenu(Graphics2D g, boolean isGameOver) {
+    private void drawMenu(Graphics2D g, boolean isGameOver, int score) {
         int btnW = 260;
         int btnH = 90;
         Point startPos = getButtonPosition(true);
@@ -703,8 +537,8 @@ public class GameCanvas extends Canvas implements Runnable, KeyListener {
 
         
         if (!isGameOver) {
-            if (startButtonImage != null) {
-                g.drawImage(startButtonImage, startPos.x, startPos.y, btnW, btnH, null);
+            if (assets.startButtonImage != null) {
+                g.drawImage(assets.startButtonImage, startPos.x, startPos.y, btnW, btnH, null);
             } else {
                 g.setColor(new Color(0, 0, 0, 120));
                 g.fillRoundRect(startPos.x, startPos.y, btnW, btnH, 20, 20);
@@ -713,8 +547,8 @@ public class GameCanvas extends Canvas implements Runnable, KeyListener {
                 drawCenteredText(g, "START", startPos.x, startPos.y, btnW, btnH);
             }
         } else {
-            if (tryAgainButtonImage != null) {
-                g.drawImage(tryAgainButtonImage, startPos.x, startPos.y, btnW, btnH, null);
+            if (assets.tryAgainButtonImage != null) {
+                g.drawImage(assets.tryAgainButtonImage, startPos.x, startPos.y, btnW, btnH, null);
             } else {
                 g.setColor(new Color(0, 0, 0, 120));
                 g.fillRoundRect(startPos.x, startPos.y, btnW, btnH, 20, 20);
@@ -725,8 +559,8 @@ public class GameCanvas extends Canvas implements Runnable, KeyListener {
         }
 
         
-        if (exitButtonImage != null) {
-            g.drawImage(exitButtonImage, exitPos.x, exitPos.y, btnW, btnH, null);
+        if (assets.exitButtonImage != null) {
+            g.drawImage(assets.exitButtonImage, exitPos.x, exitPos.y, btnW, btnH, null);
         } else {
             g.setColor(new Color(0, 0, 0, 120));
             g.fillRoundRect(exitPos.x, exitPos.y, btnW, btnH, 20, 20);
@@ -735,10 +569,35 @@ public class GameCanvas extends Canvas implements Runnable, KeyListener {
             drawCenteredText(g, "EXIT", exitPos.x, exitPos.y, btnW, btnH);
         }
 
+        int hovered = hoveredButton;
+        if (hovered != BUTTON_NONE) {
+            Point p = (hovered == BUTTON_START) ? startPos : exitPos;
+            g.setColor(HOVER_COLOR);
+            g.fillRoundRect(p.x, p.y, btnW, btnH, 20, 20);
+        }
+
         if (isGameOver) {
             g.setColor(Color.BLACK);
             g.setFont(g.getFont().deriveFont(24f));
             g.drawString("Score: " + score, 10, 30);
+            g.setFont(g.getFont().deriveFont(16f));
+            g.drawString("Best: " + scores.bestFor(PLAYER_NAME), 10, 54);
+        }
+        drawTopScores(g);
+    }
+
+    private void drawTopScores(Graphics2D g) {
+        ScoreStore.Entry[] top = scores.topScores();
+        if (top.length == 0) {
+            return;
+        }
+        g.setColor(Color.BLACK);
+        g.setFont(g.getFont().deriveFont(16f));
+        int x = WIDTH - 220;
+        g.drawString("High scores", x, 30);
+        for (int i = 0; i < Math.min(SHOWN_TOP_SCORES, top.length); i++) {
+            g.drawString((i + 1) + ". " + top[i].player, x, 54 + i * 20);
+            g.drawString(Integer.toString(top[i].score), x + 160, 54 + i * 20);
         }
     }
 
@@ -767,44 +626,61 @@ public class GameCanvas extends Canvas implements Runnable, KeyListener {
         return new java.awt.Rectangle(p.x, p.y, 260, 90);
     }
 
+    private int buttonAt(int x, int y) {
+        if (state == GameState.RUNNING) {
+            return BUTTON_NONE;
+        }
+        if (getStartButtonBounds().contains(x, y)) {
+            return BUTTON_START;
+        }
+        return getExitButtonBounds().contains(x, y) ? BUTTON_EXIT : BUTTON_NONE;
+    }
+
+    private void setHoveredButton(int button) {
+        if (hoveredButton != button) {
+            hoveredButton = button;
+            requestRedraw();
+        }
+    }
+
     private void handleMousePressed(MouseEvent e) {
-        if (state == GameState.RUNNING) return;
-        int mx = e.getX();
-        int my = e.getY();
+        if (state == GameState.RUNNING || world == null) return;
+        int mx = target.toLogicalX(e.getX());
+        int my = target.toLogicalY(e.getY());
         if (getStartButtonBounds().contains(mx, my)) {
             sound.playSfx("Sound/Start.wav");
-            startNewRun();
+            startRequested.set(true);
         } else if (getExitButtonBounds().contains(mx, my)) {
             System.exit(0);
         }
     }
 
-    private void startNewRun() {
-        obstacles.clear();
-        gifts.clear();
-        score = 0;
-        spawnTimer = 0;
-        nextSpawnDelay = MIN_SPAWN_DELAY + random.nextDouble() * (MAX_SPAWN_DELAY - MIN_SPAWN_DELAY);
-        timeSinceLastSlide = 999.0;
-        giftSpawnTimer = 0.0;
-        gift1Active = false;
-        gift1Timer = 0.0;
-        gift2Active = false;
-        gift2Timer = 0.0;
-        obstacleSpeedMultiplier = 1.0;
-        player.resetJumpPhysics();
-        player.setRunAnimSpeedMultiplier(1.0);
-        
-        int pH = (playerRunFrames != null && playerRunFrames.length > 0) ? playerRunFrames[0].getHeight() : player.getHeight();
-    double pY = HEIGHT - pH - GROUND_HEIGHT;
-        player.setY(pY);
-        state = GameState.RUNNING;
-    sound.playBgmLoop("Sound/Running.wav");
+    private void saveRecording() {
+        recording.finish(world.getTickCount(), world.getScore());
+        if (RECORD_DIR == null) {
+            return;
+        }
+        InputRecording finished = recording.copy();
+        CompletableFuture.runAsync(() -> {
+            File file = new File(RECORD_DIR, "run-" + finished.getSeed() + ".rec");
+            try {
+                file.getParentFile().mkdirs();
+                finished.save(file);
+                System.out.println("Saved input recording to " + file + " (" + finished.getEventBytes() + " event bytes)");
+            } catch (IOException e) {
+                System.err.println("Failed to save input recording '" + file + "': " + e.getMessage());
+            }
+        });
     }
 
-    private static String formatSeconds(double seconds) {
-        if (seconds < 0) seconds = 0;
-        
-        return String.format("%.1fs", seconds);
+    private void startNewRun() {
+        if (FIXED_SEED != null) {
+            world.reset(FIXED_SEED);
+        } else {
+            world.reset();
+        }
+        recording.start(world.getSeed(), world.getStressCount());
+        state = GameState.RUNNING;
+    sound.playBgmLoop(RUN_BGM);
     }
 }
\ No newline at end of file
@@ -0,0 +1,497 @@
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+class GameWorld {
+    public static final int WIDTH = 1024;
+    public static final int HEIGHT = 512;
+    public static final int GROUND_HEIGHT = 50;
+    static final int PLAYER_TARGET_HEIGHT = 120;
+    static final int JUMP_OBS_HEIGHT = 100;
+    static final int SLIDE_OBS_HEIGHT = 140;
+    static final int GIFT_HEIGHT = 70;
+
+    public static final int SIM_HZ = 240;
+    public static final double SIM_DT = 1.0 / SIM_HZ;
+
+    public static final int INPUT_JUMP = 1;
+    public static final int INPUT_SLIDE_START = 1 << 1;
+    public static final int INPUT_SLIDE_END = 1 << 2;
+
+    public static final int OBSTACLE_JUMP = 0;
+    public static final int OBSTACLE_SLIDE = 1;
+
+    enum GiftType { GIFT1, GIFT2 }
+
+    private static final double BG_SCROLL_SPEED = 60.0;
+    private static final double RECYCLE_JITTER_MIN_RATIO = 0.25;
+    private static final double RECYCLE_JITTER_MAX_RATIO = 0.75;
+
+    private static final double STRESS_SPAN_PX = WIDTH * 4.0;
+    private static final long LEVEL_SEED_SALT = 0x4C45564C53454544L;
+
+    interface Listener {
+        default void onScore(int score) {}
+        default void onCollision() {}
+        default void onPickup(GiftType type) {}
+    }
+
+    private static final Listener NO_LISTENER = new Listener() {};
+    private static final GiftType[] GIFT_TYPES = GiftType.values();
+
+    private final GameAssets assets;
+    private final Player player;
+    private final EntityRing obstacles = new EntityRing();
+    private final EntityRing gifts = new EntityRing();
+    private final BufferedImage[] obstacleImages;
+    private final int[] obstacleWidths;
+    private final int[] obstacleHeights;
+    private final int jumpImageCount;
+    private final int slideImageCount;
+    private final BufferedImage[] giftImages;
+    private final CollisionMask[] obstacleMasks;
+    private final CollisionMask[] giftMasks;
+    private final Random random = new Random();
+    private final Random seeds = new Random();
+    private Listener listener = NO_LISTENER;
+    private Difficulty difficulty = new Difficulty();
+    private final LevelStream levelStream;
+    private final LevelChunk.Cursor cursor = new LevelChunk.Cursor();
+    private LevelChunk chunk;
+    private int chunkTick = 0;
+    private boolean entryPending = false;
+    private int stressCount = 0;
+
+    private long seed;
+    private long tickCount = 0;
+    private boolean gameOver = false;
+    private int score = 0;
+    private double bgOffset = 0.0;
+    private double prevBgOffset = 0.0;
+    private boolean gift1Active = false;
+    private double gift1Timer = 0.0;
+    private boolean gift2Active = false;
+    private double gift2Timer = 0.0;
+    private double obstacleSpeedMultiplier = 1.0;
+
+    public GameWorld(GameAssets assets) {
+        this.assets = assets;
+
+        double playerX = 100;
+        int playerHeight = 60;
+        if (assets.playerRunFrames != null && assets.playerRunFrames.length > 0) {
+            playerHeight = assets.playerRunFrames[0].getHeight();
+        } else if (assets.playerImage != null) {
+            playerHeight = assets.playerImage.getHeight();
+        }
+        double playerY = HEIGHT - playerHeight - GROUND_HEIGHT;
+        if (assets.playerRunFrames != null && assets.playerRunFrames.length > 0) {
+            player = new Player(playerX, playerY, assets.playerRunFrames, assets.playerJumpFrames, assets.playerSlideFrames);
+        } else {
+            player = new Player(playerX, playerY, assets.playerImage);
+        }
+        player.setAtlas(assets.atlas);
+        player.setSlideVisualFrames(assets.playerSlideVisualFrames);
+
+        BufferedImage[] jumpImages = (assets.jumpObstacleImages != null && assets.jumpObstacleImages.length > 0)
+                ? assets.jumpObstacleImages : new BufferedImage[] {assets.obstacleImage};
+        BufferedImage[] slideImages = (assets.slideObstacleImages != null) ? assets.slideObstacleImages : new BufferedImage[0];
+        jumpImageCount = jumpImages.length;
+        slideImageCount = slideImages.length;
+        obstacleImages = new BufferedImage[jumpImageCount + slideImageCount];
+        obstacleWidths = new int[obstacleImages.length];
+        obstacleHeights = new int[obstacleImages.length];
+        for (int i = 0; i < obstacleImages.length; i++) {
+            boolean slide = i >= jumpImageCount;
+            BufferedImage img = slide ? slideImages[i - jumpImageCount] : jumpImages[i];
+            obstacleImages[i] = img;
+            if (img == null) {
+                obstacleWidths[i] = 30;
+                obstacleHeights[i] = 60;
+            } else {
+                int desiredHeight = slide ? SLIDE_OBS_HEIGHT : JUMP_OBS_HEIGHT;
+                obstacleHeights[i] = desiredHeight;
+                obstacleWidths[i] = (int) Math.round(img.getWidth() * ((double) desiredHeight / img.getHeight()));
+            }
+        }
+        giftImages = new BufferedImage[] {assets.gift1Image, assets.gift2Image};
+
+        obstacleMasks = new CollisionMask[obstacleImages.length];
+        for (int i = 0; i < obstacleImages.length; i++) {
+            obstacleMasks[i] = assets.maskFor(obstacleImages[i], obstacleWidths[i], obstacleHeights[i]);
+        }
+        giftMasks = new CollisionMask[giftImages.length];
+        for (int i = 0; i < giftImages.length; i++) {
+            BufferedImage img = giftImages[i];
+            giftMasks[i] = (img != null) ? assets.maskFor(img, img.getWidth(), img.getHeight()) : null;
+        }
+        levelStream = new LevelStream(new ChunkGenerator(jumpImageCount, slideImageCount, ChunkGenerator.AUTHORED));
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = (listener != null) ? listener : NO_LISTENER;
+    }
+
+    public void setStressCount(int stressCount) {
+        this.stressCount = Math.max(0, stressCount);
+    }
+
+    public void setDifficulty(Difficulty difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    // Interactive play generates level chunks ahead on a background thread; headless tools keep the default
+    // inline generation, which yields the same chunks for a given seed.
+    public void startBackgroundLevelGeneration() {
+        levelStream.startBackground();
+    }
+
+    public void reset() {
+        reset(seeds.nextLong());
+    }
+
+    public void reset(long seed) {
+        this.seed = seed;
+        random.setSeed(seed);
+        tickCount = 0;
+        obstacles.clear();
+        gifts.clear();
+        gameOver = false;
+        score = 0;
+        clearEffects();
+        levelStream.reset(seed ^ LEVEL_SEED_SALT, difficulty);
+        nextChunk();
+
+        bgOffset = 0.0;
+        prevBgOffset = 0.0;
+
+        int pH = (assets.playerRunFrames != null && assets.playerRunFrames.length > 0) ? assets.playerRunFrames[0].getHeight() : player.getHeight();
+        player.reset(HEIGHT - pH - GROUND_HEIGHT);
+
+        for (int i = 0; i < stressCount; i++) {
+            double x = WIDTH + (i + random.nextDouble()) * (STRESS_SPAN_PX / stressCount);
+            addObstacle(x, random.nextInt(obstacleImages.length), difficulty.obstacleBaseSpeed + random.nextDouble() * difficulty.obstacleSpeedVariance);
+            GiftType type = (random.nextDouble() < difficulty.gift2Prob / (difficulty.gift1Prob + difficulty.gift2Prob)) ? GiftType.GIFT2 : GiftType.GIFT1;
+            double gy = HEIGHT - GROUND_HEIGHT - 100 - random.nextDouble() * 200;
+            addGift(x + random.nextDouble() * difficulty.minSpawnGapPx, Math.max(0, gy), type, difficulty.giftBaseSpeed + random.nextDouble() * difficulty.giftSpeedVariance);
+        }
+    }
+
+    public void tick(double dt, int inputs) {
+        if (gameOver) {
+            return;
+        }
+        tickCount++;
+
+        player.savePreviousPosition();
+        prevBgOffset = bgOffset;
+
+        applyInputs(inputs);
+
+        player.update(dt);
+
+        if (assets.backgroundImage != null) {
+            bgOffset += BG_SCROLL_SPEED * dt;
+            double bw = assets.backgroundImage.getWidth();
+            if (bw > 0) {
+                bgOffset = bgOffset % bw;
+            }
+        }
+
+        if (gift1Active) {
+            gift1Timer -= dt;
+            if (gift1Timer <= 0) {
+                gift1Active = false;
+                gift1Timer = 0.0;
+                player.resetJumpPhysics();
+            }
+        }
+
+        if (gift2Active) {
+            gift2Timer -= dt;
+            if (gift2Timer <= 0) {
+                gift2Active = false;
+                gift2Timer = 0.0;
+                obstacleSpeedMultiplier = 1.0;
+                player.setRunAnimSpeedMultiplier(1.0);
+                obstacles.clear();
+            }
+        }
+
+        if (updateObstacles(dt)) {
+            return;
+        }
+
+        updateGifts(dt);
+        advanceLevel();
+    }
+
+    // Spawns every entry of the current chunk that is due. An obstacle group waits, holding the level clock,
+    // until the lane has clearance; a standalone gift that finds no room is dropped, as before.
+    private void advanceLevel() {
+        if (entryPending && cursor.tick <= chunkTick) {
+            if (!LevelChunk.isGift(cursor.kind) && !hasSpawnClearance()) {
+                return;
+            }
+            boolean first = true;
+            do {
+                spawnEntry(first);
+                first = false;
+                entryPending = cursor.next();
+            } while (entryPending && cursor.tick <= chunkTick);
+        }
+        if (++chunkTick >= chunk.getDurationTicks()) {
+            nextChunk();
+        }
+    }
+
+    private void nextChunk() {
+        levelStream.recycle(chunk);
+        chunk = levelStream.take();
+        cursor.start(chunk);
+        entryPending = cursor.next();
+        chunkTick = 0;
+    }
+
+    private boolean updateObstacles(double dt) {
+        EntityRing ring = obstacles;
+        move(ring, dt);
+
+        if (!gift2Active) {
+            int hit = firstOverlap(ring, obstacleMasks, ring.lowerBound(player.getBoundsX() - ring.maxWidth()));
+            if (hit >= 0) {
+                endRun();
+                return true;
+            }
+        }
+
+        double[] x = ring.x;
+        int[] width = ring.width;
+        double rollingRightmost = ring.rightEdge();
+        int count = ring.size();
+        int s = ring.head();
+        for (int i = 0; i < count && x[s] < 0; i++, s = ring.next(s)) {
+            if (x[s] + width[s] >= 0) {
+                continue;
+            }
+            score++;
+            listener.onScore(score);
+
+            double newX;
+            if (stressCount > 0) {
+                newX = Math.max(WIDTH, rollingRightmost) + random.nextDouble() * (STRESS_SPAN_PX / stressCount);
+            } else {
+                double baseSpawn = Math.max(WIDTH, rollingRightmost + difficulty.minSpawnGapPx);
+                double jitter = difficulty.minSpawnGapPx * (RECYCLE_JITTER_MIN_RATIO + random.nextDouble() * (RECYCLE_JITTER_MAX_RATIO - RECYCLE_JITTER_MIN_RATIO));
+                newX = baseSpawn + jitter;
+            }
+            double y = ring.y[s];
+            double vx = ring.speedX[s];
+            int w = width[s];
+            int h = ring.height[s];
+            int type = ring.type[s];
+            int image = ring.image[s];
+            ring.remove(s);
+            ring.add(newX, y, w, h, vx, type, image);
+            rollingRightmost = Math.max(rollingRightmost, newX + w);
+        }
+        return false;
+    }
+
+    private void updateGifts(double dt) {
+        EntityRing ring = gifts;
+        move(ring, dt);
+
+        int from = ring.lowerBound(player.getBoundsX() - ring.maxWidth());
+        int hit;
+        while ((hit = firstOverlap(ring, giftMasks, from)) >= 0) {
+            GiftType type = GIFT_TYPES[ring.type[ring.slot(hit)]];
+            ring.remove(ring.slot(hit));
+            applyGift(type);
+            listener.onPickup(type);
+            from = hit;
+        }
+
+        double[] x = ring.x;
+        int[] width = ring.width;
+        int count = ring.size();
+        int s = ring.head();
+        for (int i = 0; i < count && x[s] < 0; i++, s = ring.next(s)) {
+            if (x[s] + width[s] < 0) {
+                double y = ring.y[s];
+                double vx = ring.speedX[s];
+                int w = width[s];
+                int h = ring.height[s];
+                int type = ring.type[s];
+                ring.remove(s);
+                if (stressCount > 0) {
+                    ring.add(Math.max(WIDTH, ring.rightEdge()) + random.nextDouble() * (STRESS_SPAN_PX / stressCount), y, w, h, vx, type, type);
+                }
+            }
+        }
+    }
+
+    private static void move(EntityRing ring, double dt) {
+        double[] x = ring.x;
+        double[] prevX = ring.prevX;
+        double[] speedX = ring.speedX;
+        int[] width = ring.width;
+        double rightmost = Double.NEGATIVE_INFINITY;
+        int count = ring.size();
+        int s = ring.head();
+        for (int i = 0; i < count; i++, s = ring.next(s)) {
+            prevX[s] = x[s];
+            x[s] += speedX[s] * dt;
+            rightmost = Math.max(rightmost, x[s] + width[s]);
+        }
+        ring.setRightmost(rightmost);
+        ring.sortByX();
+    }
+
+    private int firstOverlap(EntityRing ring, CollisionMask[] masks, int from) {
+        int pw = player.getBoundsWidth();
+        int ph = player.getBoundsHeight();
+        if (pw <= 0 || ph <= 0) {
+            return -1;
+        }
+        int px = player.getBoundsX();
+        int py = player.getBoundsY();
+        CollisionMask playerMask = null;
+        int count = ring.size();
+        for (int i = from; i < count; i++) {
+            int s = ring.slot(i);
+            int ex = (int) Math.round(ring.x[s]);
+            if (ex >= px + pw) {
+                break;
+            }
+            int ew = ring.width[s];
+            int eh = ring.height[s];
+            if (ew <= 0 || eh <= 0) {
+                continue;
+            }
+            int ey = (int) Math.round(ring.y[s]);
+            if (px < ex + ew && py < ey + eh && ey < py + ph) {
+                if (playerMask == null) {
+                    playerMask = assets.collisionMasks.get(player.getCollisionFrame());
+                }
+                if (CollisionMask.overlaps(playerMask, px, py, pw, ph, masks[ring.image[s]], ex, ey, ew, eh)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void applyInputs(int inputs) {
+        if ((inputs & INPUT_JUMP) != 0 && player.isOnGround()) {
+            player.jump();
+        }
+        if ((inputs & INPUT_SLIDE_START) != 0) {
+            player.startSlide();
+        }
+        if ((inputs & INPUT_SLIDE_END) != 0) {
+            player.endSlide();
+        }
+    }
+
+    private void applyGift(GiftType type) {
+        if (type == GiftType.GIFT1) {
+            gift1Active = true;
+            gift1Timer = difficulty.gift1Duration;
+            player.applyGift1JumpBoost(4320.0, -1440.0);
+        } else if (type == GiftType.GIFT2) {
+            if (!gift2Active) {
+                gift2Active = true;
+                gift2Timer = difficulty.gift2Duration;
+                obstacleSpeedMultiplier = difficulty.gift2SpeedMultiplier;
+                player.setRunAnimSpeedMultiplier(3.0);
+                double[] speedX = obstacles.speedX;
+                for (int i = 0, s = obstacles.head(); i < obstacles.size(); i++, s = obstacles.next(s)) {
+                    speedX[s] *= difficulty.gift2SpeedMultiplier;
+                }
+            } else {
+                gift2Timer = difficulty.gift2Duration;
+            }
+        }
+    }
+
+    private void endRun() {
+        gameOver = true;
+        obstacles.clear();
+        gifts.clear();
+        clearEffects();
+        listener.onCollision();
+    }
+
+    private void clearEffects() {
+        gift1Active = false;
+        gift1Timer = 0.0;
+        gift2Active = false;
+        gift2Timer = 0.0;
+        obstacleSpeedMultiplier = 1.0;
+        player.resetJumpPhysics();
+        player.setRunAnimSpeedMultiplier(1.0);
+    }
+
+    private boolean hasSpawnClearance() {
+        return obstacles.rightEdge() < (WIDTH - difficulty.minSpawnGapPx);
+    }
+
+    private void spawnEntry(boolean first) {
+        double x = WIDTH + cursor.dx;
+        int kind = cursor.kind;
+        if (kind == LevelChunk.KIND_JUMP || (kind == LevelChunk.KIND_SLIDE && slideImageCount == 0)) {
+            addObstacle(x, cursor.variant % jumpImageCount, cursor.speed * obstacleSpeedMultiplier);
+        } else if (kind == LevelChunk.KIND_SLIDE) {
+            addObstacle(x, jumpImageCount + cursor.variant % slideImageCount, cursor.speed * obstacleSpeedMultiplier);
+        } else {
+            GiftType type = (kind == LevelChunk.KIND_GIFT2) ? GiftType.GIFT2 : GiftType.GIFT1;
+            BufferedImage img = giftImages[type.ordinal()];
+            if (img == null || gifts.size() >= difficulty.maxSimultGifts || (first && !hasSpawnClearance())) {
+                return;
+            }
+            double y = Math.max(0, HEIGHT - GROUND_HEIGHT - cursor.clearance - img.getHeight());
+            addGift(x, y, type, cursor.speed * obstacleSpeedMultiplier);
+        }
+    }
+
+    void addObstacle(double x, int imageIndex, double speedX) {
+        boolean slide = imageIndex >= jumpImageCount;
+        double y;
+        if (slide) {
+            double standingTopY = HEIGHT - GROUND_HEIGHT - PLAYER_TARGET_HEIGHT;
+            double slideBottomTarget = standingTopY + (PLAYER_TARGET_HEIGHT * 0.45);
+            y = Math.max(0, slideBottomTarget - SLIDE_OBS_HEIGHT);
+        } else {
+            y = HEIGHT - obstacleHeights[imageIndex] - GROUND_HEIGHT;
+        }
+        obstacles.add(x, y, obstacleWidths[imageIndex], obstacleHeights[imageIndex], speedX,
+                slide ? OBSTACLE_SLIDE : OBSTACLE_JUMP, imageIndex);
+    }
+
+    void addGift(double x, double y, GiftType type, double speedX) {
+        BufferedImage img = giftImages[type.ordinal()];
+        int gW = (img != null) ? img.getWidth() : 24;
+        int gH = (img != null) ? img.getHeight() : 24;
+        gifts.add(x, y, gW, gH, speedX, type.ordinal(), type.ordinal());
+    }
+
+    public GameAssets getAssets() { return assets; }
+    public Player getPlayer() { return player; }
+    public EntityRing getObstacles() { return obstacles; }
+    public EntityRing getGifts() { return gifts; }
+    public BufferedImage[] getObstacleImages() { return obstacleImages; }
+    public BufferedImage[] getGiftImages() { return giftImages; }
+    public int getObstacleImageCount() { return obstacleImages.length; }
+    public boolean isGameOver() { return gameOver; }
+    public int getScore() { return score; }
+    public double getBgOffset() { return bgOffset; }
+    public double getPrevBgOffset() { return prevBgOffset; }
+    public long getSeed() { return seed; }
+    public LevelStream getLevelStream() { return levelStream; }
+    public long getTickCount() { return tickCount; }
+    public int getStressCount() { return stressCount; }
+    public boolean isGift1Active() { return gift1Active; }
+    public double getGift1Timer() { return gift1Timer; }
+    public boolean isGift2Active() { return gift2Active; }
+    public double getGift2Timer() { return gift2Timer; }
+}
@@ -0,0 +1,152 @@
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.HeadlessException;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+class ImageAccelerator {
+    static final boolean USE_VOLATILE = Boolean.getBoolean("stickman.volatileImages");
+
+    static GraphicsConfiguration defaultConfiguration() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return null;
+        }
+        try {
+            return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        } catch (HeadlessException e) {
+            return null;
+        }
+    }
+
+    static int classify(BufferedImage img) {
+        if (!img.getColorModel().hasAlpha()) {
+            return Transparency.OPAQUE;
+        }
+        int w = img.getWidth();
+        int h = img.getHeight();
+        int[] row = new int[w];
+        boolean opaque = true;
+        for (int y = 0; y < h; y++) {
+            img.getRGB(0, y, w, 1, row, 0, w);
+            for (int x = 0; x < w; x++) {
+                int a = row[x] >>> 24;
+                if (a != 0xFF) {
+                    if (a != 0) {
+                        return Transparency.TRANSLUCENT;
+                    }
+                    opaque = false;
+                }
+            }
+        }
+        return opaque ? Transparency.OPAQUE : Transparency.BITMASK;
+    }
+
+    static String transparencyName(int transparency) {
+        switch (transparency) {
+            case Transparency.OPAQUE: return "OPAQUE";
+            case Transparency.BITMASK: return "BITMASK";
+            default: return "TRANSLUCENT";
+        }
+    }
+
+    static BufferedImage toCompatible(BufferedImage src, GraphicsConfiguration gc) {
+        if (src == null) {
+            return null;
+        }
+        int transparency = classify(src);
+        return toCompatible(src, gc, transparency);
+    }
+
+    static BufferedImage toCompatible(BufferedImage src, GraphicsConfiguration gc, int transparency) {
+        int w = src.getWidth();
+        int h = src.getHeight();
+        BufferedImage dest;
+        if (gc != null) {
+            if (src.getColorModel().equals(gc.getColorModel(transparency))) {
+                return src;
+            }
+            dest = gc.createCompatibleImage(w, h, transparency);
+        } else if (transparency == Transparency.OPAQUE && src.getType() != BufferedImage.TYPE_INT_RGB) {
+            dest = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        } else if (transparency != Transparency.OPAQUE && src.getType() != BufferedImage.TYPE_INT_ARGB) {
+            dest = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        } else {
+            return src;
+        }
+        Graphics2D g = dest.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(src, 0, 0, null);
+        g.dispose();
+        return dest;
+    }
+
+    static boolean isAccelerated(Image img, GraphicsConfiguration gc) {
+        if (img == null || gc == null) {
+            return false;
+        }
+        return img.getCapabilities(gc).isAccelerated();
+    }
+
+    static final class VolatileCopy {
+        private final BufferedImage source;
+        private final int transparency;
+        private VolatileImage surface;
+
+        VolatileCopy(BufferedImage source, int transparency) {
+            this.source = source;
+            this.transparency = transparency;
+        }
+
+        public boolean validate(GraphicsConfiguration gc) {
+            if (gc == null) {
+                return false;
+            }
+            if (surface == null) {
+                create(gc);
+                return true;
+            }
+            int status = surface.validate(gc);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                surface.flush();
+                create(gc);
+                return true;
+            }
+            if (status == VolatileImage.IMAGE_RESTORED) {
+                restore();
+                return true;
+            }
+            return false;
+        }
+
+        private void create(GraphicsConfiguration gc) {
+            surface = gc.createCompatibleVolatileImage(source.getWidth(), source.getHeight(), transparency);
+            restore();
+        }
+
+        private void restore() {
+            Graphics2D g = surface.createGraphics();
+            try {
+                g.setComposite(AlphaComposite.Src);
+                g.drawImage(source, 0, 0, null);
+            } finally {
+                g.dispose();
+            }
+        }
+
+        public boolean contentsLost() {
+            return surface != null && surface.contentsLost();
+        }
+
+        public Image image() {
+            return (surface != null) ? surface : source;
+        }
+
+        public BufferedImage getSource() {
+            return source;
+        }
+    }
+}
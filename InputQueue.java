@@ -0,0 +1,68 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+class InputQueue {
+    private final int mask;
+    private final int[] inputs;
+    private final long[] nanos;
+    private final long[] ticks;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long dropped = 0;
+
+    private int peekedInput;
+    private long peekedNanos;
+    private long peekedTick;
+
+    InputQueue(int minCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, minCapacity) - 1) << 1;
+        mask = capacity - 1;
+        inputs = new int[capacity];
+        nanos = new long[capacity];
+        ticks = new long[capacity];
+    }
+
+    // Single producer only. Returns false and counts the event as dropped when the consumer has fallen behind.
+    public boolean offer(int input, long eventNanos, long tick) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            dropped++;
+            return false;
+        }
+        int i = (int) (t & mask);
+        inputs[i] = input;
+        nanos[i] = eventNanos;
+        ticks[i] = tick;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    // Single consumer only; the head event is read back through input(), nanos() and tick() and stays queued until remove().
+    public boolean peek() {
+        long h = head.get();
+        if (h == tail.get()) {
+            return false;
+        }
+        int i = (int) (h & mask);
+        peekedInput = inputs[i];
+        peekedNanos = nanos[i];
+        peekedTick = ticks[i];
+        return true;
+    }
+
+    public void remove() {
+        head.lazySet(head.get() + 1);
+    }
+
+    public boolean poll() {
+        if (!peek()) {
+            return false;
+        }
+        remove();
+        return true;
+    }
+
+    public int input() { return peekedInput; }
+    public long nanos() { return peekedNanos; }
+    public long tick() { return peekedTick; }
+    public long droppedCount() { return dropped; }
+}
@@ -0,0 +1,148 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+class InputRecording {
+    private static final int MAGIC = 0x53524543;
+    private static final int VERSION = 3;
+    private static final int INPUT_BITS = 3;
+    private static final int INPUT_MASK = (1 << INPUT_BITS) - 1;
+
+    private long seed;
+    private int stressCount;
+    private byte[] events = new byte[256];
+    private int length = 0;
+    private long lastTick = 0;
+    private long finalTick = -1;
+    private int finalScore = 0;
+
+    public void start(long seed, int stressCount) {
+        this.seed = seed;
+        this.stressCount = stressCount;
+        length = 0;
+        lastTick = 0;
+        finalTick = -1;
+        finalScore = 0;
+    }
+
+    // Events are stored as varint((ticksSincePreviousEvent << 3) | inputs); inputs is never zero.
+    public void record(long tick, int inputs) {
+        inputs &= INPUT_MASK;
+        if (inputs == 0) {
+            return;
+        }
+        long value = ((tick - lastTick) << INPUT_BITS) | inputs;
+        lastTick = tick;
+        if (length + 10 > events.length) {
+            events = Arrays.copyOf(events, events.length * 2);
+        }
+        while ((value & ~0x7FL) != 0) {
+            events[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        events[length++] = (byte) value;
+    }
+
+    public void finish(long ticks, int score) {
+        finalTick = ticks;
+        finalScore = score;
+    }
+
+    public long getSeed() { return seed; }
+    public int getStressCount() { return stressCount; }
+    public long getFinalTick() { return finalTick; }
+    public int getFinalScore() { return finalScore; }
+    public int getEventBytes() { return length; }
+
+    public InputRecording copy() {
+        InputRecording copy = new InputRecording();
+        copy.seed = seed;
+        copy.stressCount = stressCount;
+        copy.events = Arrays.copyOf(events, length);
+        copy.length = length;
+        copy.lastTick = lastTick;
+        copy.finalTick = finalTick;
+        copy.finalScore = finalScore;
+        return copy;
+    }
+
+    public void save(File file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(seed);
+            out.writeInt(stressCount);
+            out.writeLong(finalTick);
+            out.writeInt(finalScore);
+            out.writeInt(length);
+            out.write(events, 0, length);
+        }
+    }
+
+    static InputRecording load(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("not an input recording: " + file);
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("unsupported recording version " + version);
+            }
+            InputRecording recording = new InputRecording();
+            recording.seed = in.readLong();
+            recording.stressCount = in.readInt();
+            recording.finalTick = in.readLong();
+            recording.finalScore = in.readInt();
+            recording.length = in.readInt();
+            recording.events = new byte[recording.length];
+            in.readFully(recording.events);
+            return recording;
+        }
+    }
+
+    public Playback playback() {
+        return new Playback();
+    }
+
+    class Playback {
+        private int position = 0;
+        private long nextTick = -1;
+        private int nextInputs = 0;
+
+        Playback() {
+            advance(0);
+        }
+
+        public int inputsFor(long tick) {
+            if (nextInputs == 0 || tick != nextTick) {
+                return 0;
+            }
+            int inputs = nextInputs;
+            advance(nextTick);
+            return inputs;
+        }
+
+        private void advance(long fromTick) {
+            if (position >= length) {
+                nextInputs = 0;
+                return;
+            }
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = events[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0 && position < length);
+            nextTick = fromTick + (value >>> INPUT_BITS);
+            nextInputs = (int) (value & INPUT_MASK);
+        }
+    }
+}
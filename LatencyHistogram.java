@@ -0,0 +1,64 @@
+import java.util.Arrays;
+
+class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int HALF_SUB = SUB_COUNT >> 1;
+    private static final int MAX_SHIFT = 40;
+
+    private final long[] counts = new long[(MAX_SHIFT + 2) * HALF_SUB];
+    private long total = 0;
+    private long max = 0;
+    private long sum = 0;
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts[Math.min(index(value), counts.length - 1)]++;
+        total++;
+        sum += value;
+        if (value > max) max = value;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        total = 0;
+        max = 0;
+        sum = 0;
+    }
+
+    public long count() { return total; }
+    public long max() { return max; }
+    public double mean() { return (total == 0) ? 0.0 : (double) sum / total; }
+
+    public long percentile(double p) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, upperBound(i));
+            }
+        }
+        return max;
+    }
+
+    private static int index(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BITS - 1);
+        return shift * HALF_SUB + (int) (value >>> shift);
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int shift = index / HALF_SUB - 1;
+        long mantissa = index - (long) shift * HALF_SUB;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
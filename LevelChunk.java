@@ -0,0 +1,168 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class LevelChunk {
+    static final int KIND_JUMP = 0;
+    static final int KIND_SLIDE = 1;
+    static final int KIND_GIFT1 = 2;
+    static final int KIND_GIFT2 = 3;
+    private static final int KIND_SHIFT = 6;
+    private static final int VARIANT_MASK = (1 << KIND_SHIFT) - 1;
+    private static final int MAGIC = 0x534C564C;
+    private static final int VERSION = 1;
+
+    private byte[] data = new byte[128];
+    private int length = 0;
+    private int entryCount = 0;
+    private int durationTicks = 0;
+    private int lastTick = 0;
+
+    public int getDurationTicks() { return durationTicks; }
+    public int getEntryCount() { return entryCount; }
+    public int getByteLength() { return length; }
+
+    public void begin(int durationTicks) {
+        this.durationTicks = durationTicks;
+        length = 0;
+        entryCount = 0;
+        lastTick = 0;
+    }
+
+    // Entries are varint(tick delta), byte(kind << 6 | variant), varint(dx), varint(zigzag speed) and, for
+    // gifts, varint(clearance above the ground); entries sharing a tick spawn together as one group.
+    public void add(int tick, int kind, int variant, int dx, int speed, int clearance) {
+        if (tick < lastTick || tick >= durationTicks) {
+            throw new IllegalArgumentException("entry tick " + tick + " out of order or past " + durationTicks);
+        }
+        if (length + 24 > data.length) {
+            data = Arrays.copyOf(data, data.length * 2);
+        }
+        writeVarint(tick - lastTick);
+        data[length++] = (byte) ((kind << KIND_SHIFT) | (variant & VARIANT_MASK));
+        writeVarint(dx);
+        writeVarint((speed << 1) ^ (speed >> 31));
+        if (isGift(kind)) {
+            writeVarint(clearance);
+        }
+        lastTick = tick;
+        entryCount++;
+    }
+
+    public void copyFrom(LevelChunk other) {
+        if (data.length < other.length) {
+            data = new byte[other.data.length];
+        }
+        System.arraycopy(other.data, 0, data, 0, other.length);
+        length = other.length;
+        entryCount = other.entryCount;
+        durationTicks = other.durationTicks;
+        lastTick = other.lastTick;
+    }
+
+    static boolean isGift(int kind) {
+        return kind >= KIND_GIFT1;
+    }
+
+    private void writeVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+
+    static final class Cursor {
+        private LevelChunk chunk;
+        private int position;
+        private int remaining;
+        int tick;
+        int kind;
+        int variant;
+        int dx;
+        int speed;
+        int clearance;
+
+        public void start(LevelChunk chunk) {
+            this.chunk = chunk;
+            position = 0;
+            remaining = chunk.entryCount;
+            tick = 0;
+        }
+
+        // Decodes the next entry into the public fields; false once the chunk is exhausted.
+        public boolean next() {
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            tick += readVarint();
+            int b = chunk.data[position++] & 0xFF;
+            kind = b >>> KIND_SHIFT;
+            variant = b & VARIANT_MASK;
+            dx = readVarint();
+            int z = readVarint();
+            speed = (z >>> 1) ^ -(z & 1);
+            clearance = isGift(kind) ? readVarint() : 0;
+            return true;
+        }
+
+        private int readVarint() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = chunk.data[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+
+    static void save(File file, List<LevelChunk> chunks) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(chunks.size());
+            for (LevelChunk chunk : chunks) {
+                out.writeShort(chunk.durationTicks);
+                out.writeShort(chunk.entryCount);
+                out.writeShort(chunk.length);
+                out.write(chunk.data, 0, chunk.length);
+            }
+        }
+    }
+
+    static List<LevelChunk> load(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("not a level chunk file: " + file);
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("unsupported level chunk version " + version);
+            }
+            int count = in.readInt();
+            List<LevelChunk> chunks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                LevelChunk chunk = new LevelChunk();
+                chunk.durationTicks = in.readUnsignedShort();
+                chunk.entryCount = in.readUnsignedShort();
+                chunk.length = in.readUnsignedShort();
+                chunk.data = new byte[Math.max(chunk.length, 16)];
+                in.readFully(chunk.data, 0, chunk.length);
+                chunks.add(chunk);
+            }
+            return chunks;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.locks.LockSupport;
+
+class LevelStream implements Runnable {
+    static final int LOOKAHEAD_CHUNKS = 3;
+
+    private final ChunkGenerator generator;
+    private final Object generatorLock = new Object();
+    private final ArrayBlockingQueue<LevelChunk> ready = new ArrayBlockingQueue<>(LOOKAHEAD_CHUNKS);
+    private final ArrayBlockingQueue<LevelChunk> free = new ArrayBlockingQueue<>(LOOKAHEAD_CHUNKS + 2);
+    private Thread thread;
+    private long misses = 0;
+
+    LevelStream(ChunkGenerator generator) {
+        this.generator = generator;
+    }
+
+    // Starts a daemon thread that keeps LOOKAHEAD_CHUNKS generated ahead of the consumer. Without it every
+    // chunk is generated inline by take(); the sequence is identical either way.
+    public synchronized void startBackground() {
+        if (thread != null) {
+            return;
+        }
+        thread = new Thread(this, "LevelGenerator");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public boolean isBackground() {
+        return thread != null;
+    }
+
+    public void reset(long seed, Difficulty difficulty) {
+        synchronized (generatorLock) {
+            LevelChunk chunk;
+            while ((chunk = ready.poll()) != null) {
+                free.offer(chunk);
+            }
+            generator.reset(seed, difficulty);
+        }
+        LockSupport.unpark(thread);
+    }
+
+    // Consumer thread only. Falls back to generating inline (a miss) if the background thread is behind.
+    public LevelChunk take() {
+        LevelChunk chunk = ready.poll();
+        if (chunk == null) {
+            synchronized (generatorLock) {
+                chunk = ready.poll();
+                if (chunk == null) {
+                    chunk = obtain();
+                    generator.next(chunk);
+                    if (thread != null) {
+                        misses++;
+                    }
+                }
+            }
+        }
+        LockSupport.unpark(thread);
+        return chunk;
+    }
+
+    public void recycle(LevelChunk chunk) {
+        if (chunk != null) {
+            free.offer(chunk);
+        }
+    }
+
+    public long getMissCount() { return misses; }
+
+    private LevelChunk obtain() {
+        LevelChunk chunk = free.poll();
+        return (chunk != null) ? chunk : new LevelChunk();
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            while (true) {
+                synchronized (generatorLock) {
+                    if (ready.remainingCapacity() == 0) {
+                        break;
+                    }
+                    LevelChunk chunk = obtain();
+                    generator.next(chunk);
+                    ready.offer(chunk);
+                }
+            }
+            LockSupport.park(this);
+        }
+    }
+}
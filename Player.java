@@ -1,6 +1,5 @@
 import java.awt.Color;
 import java.awt.Graphics2D;
-import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 
 class Player extends Sprite {
@@ -10,36 +9,69 @@ class Player extends Sprite {
 
     private final int originalHeight;
     private final int originalWidth;
+    private final int slideDrawHeight;
 
     private BufferedImage[] runFrames;
-    private int frameIndex = 0;
-    private int frameTicker = 0;
-    
-    private static final int RUN_FRAMES_PER_STEP = 16;
-    private static final int JUMP_FRAMES_PER_STEP = 12;
-    private static final int SLIDE_FRAMES_PER_STEP = 8;
+    private BufferedImage[] jumpFrames;
+    private BufferedImage[] slideFrames;
+    private BufferedImage[] slideVisualFrames;
 
-    private int framesPerStep = RUN_FRAMES_PER_STEP;
-    private double runAnimSpeedMultiplier = 1.0;
+    private static final double RUN_FRAME_SECONDS = 16.0 / 120.0;
+    private static final double JUMP_FRAME_SECONDS = 12.0 / 120.0;
+    private static final double SLIDE_FRAME_SECONDS = 8.0 / 120.0;
+    private static final int SLIDE_DOWN_FRAMES = 3;
+    private static final double TIME_EPSILON = 1e-9;
 
-    private BufferedImage[] jumpFrames;
-    private int jumpIndex = 0;
-    private int jumpTicker = 0;
-    private int jumpFramesPerStep = JUMP_FRAMES_PER_STEP;
-    private boolean jumpAnimPlaying = false;
+    private static final int RUN = 0;
+    private static final int JUMP = 1;
+    private static final int SLIDE_DOWN = 2;
+    private static final int SLIDE_RELEASE = 3;
 
-    private BufferedImage[] slideFrames;
-    private int slideIndex = 0;
-    private int slideTicker = 0;
-    private int slideFramesPerStep = SLIDE_FRAMES_PER_STEP;
-    private int slideDownCount = 3;
-    private boolean slideAnimActive = false;
-    private boolean slideReleasePlaying = false;
-
-    private static final double SLIDE_VISUAL_SCALE = 0.4;
+    private static final int END_LOOP = 0;
+    private static final int END_HOLD = 1;
+    private static final int END_NEXT = 2;
+    private static final int LAST_FRAME = -1;
+
+    // A row of the animation table: a frame range of one strip, seconds per frame, and what happens after the
+    // last frame (wrap, hold until released, or hand over to the next state). Frame sizes are read once here.
+    private static final class AnimState {
+        final BufferedImage[] frames;
+        final int[] widths;
+        final int[] heights;
+        final int first;
+        final int last;
+        final double frameSeconds;
+        final int end;
+        final int next;
+        final boolean slide;
+
+        AnimState(BufferedImage[] frames, int first, int last, double frameSeconds, int end, int next, boolean slide) {
+            this.frames = frames;
+            this.first = first;
+            this.last = (last == LAST_FRAME) ? frames.length - 1 : last;
+            this.frameSeconds = frameSeconds;
+            this.end = end;
+            this.next = next;
+            this.slide = slide;
+            widths = new int[frames.length];
+            heights = new int[frames.length];
+            for (int i = 0; i < frames.length; i++) {
+                widths[i] = frames[i].getWidth();
+                heights[i] = frames[i].getHeight();
+            }
+        }
+    }
+
+    private final AnimState[] states = new AnimState[4];
+    private AnimState anim;
+    private int animFrame = 0;
+    private double animTime = 0;
+    private double runAnimSpeedMultiplier = 1.0;
+
+    static final double SLIDE_VISUAL_SCALE = 0.4;
     
-    private static final double DEFAULT_GRAVITY_ACC = 0.4;
-    private static final double DEFAULT_JUMP_VELOCITY = -11.0;
+    private static final double DEFAULT_GRAVITY_ACC = 5760.0;
+    private static final double DEFAULT_JUMP_VELOCITY = -1320.0;
     private double gravityAcc = DEFAULT_GRAVITY_ACC;
     private double jumpVelocity = DEFAULT_JUMP_VELOCITY;
 
@@ -47,6 +79,7 @@ class Player extends Sprite {
         super(x, y, image);
         this.originalWidth = this.width;
         this.originalHeight = this.height;
+        this.slideDrawHeight = Math.max(1, (int) Math.round(originalHeight * SLIDE_VISUAL_SCALE));
     }
 
     public Player(double x, double y, BufferedImage[] frames) {
@@ -62,139 +95,119 @@ class Player extends Sprite {
         }
         this.originalWidth = this.width;
         this.originalHeight = this.height;
+        this.slideDrawHeight = Math.max(1, (int) Math.round(originalHeight * SLIDE_VISUAL_SCALE));
+        if (runFrames != null) {
+            states[RUN] = new AnimState(runFrames, 0, LAST_FRAME, RUN_FRAME_SECONDS, END_LOOP, RUN, false);
+            anim = states[RUN];
+        }
     }
 
     public Player(double x, double y, BufferedImage[] runFrames, BufferedImage[] jumpFrames) {
         this(x, y, runFrames);
         this.jumpFrames = (jumpFrames != null && jumpFrames.length > 0) ? jumpFrames.clone() : null;
+        if (this.jumpFrames != null) {
+            states[JUMP] = new AnimState(this.jumpFrames, 0, LAST_FRAME, JUMP_FRAME_SECONDS, END_NEXT, RUN, false);
+        }
     }
 
     public Player(double x, double y, BufferedImage[] runFrames, BufferedImage[] jumpFrames, BufferedImage[] slideFrames) {
         this(x, y, runFrames, jumpFrames);
         this.slideFrames = (slideFrames != null && slideFrames.length > 0) ? slideFrames.clone() : null;
         if (this.slideFrames != null) {
-            slideDownCount = Math.min(slideDownCount, this.slideFrames.length);
+            int hold = Math.min(SLIDE_DOWN_FRAMES, this.slideFrames.length) - 1;
+            states[SLIDE_DOWN] = new AnimState(this.slideFrames, 0, hold, SLIDE_FRAME_SECONDS, END_HOLD, SLIDE_RELEASE, true);
+            states[SLIDE_RELEASE] = new AnimState(this.slideFrames, hold, LAST_FRAME, SLIDE_FRAME_SECONDS, END_NEXT, RUN, true);
         }
     }
 
     @Override
-    public void update() {
+    public void update(double dt) {
         if (!onGround) {
-            velocityY += gravityAcc;
+            velocityY += gravityAcc * dt;
         }
 
-        y += velocityY;
+        y += velocityY * dt;
 
-    double groundY = GameCanvas.HEIGHT - GameCanvas.GROUND_HEIGHT - height;
+    double groundY = GameWorld.HEIGHT - GameWorld.GROUND_HEIGHT - height;
         if (y >= groundY) {
             y = groundY;
             velocityY = 0;
             onGround = true;
         }
 
-        
-        if (jumpAnimPlaying && jumpFrames != null && jumpFrames.length > 0) {
-            jumpTicker++;
-            if (jumpTicker >= jumpFramesPerStep) {
-                jumpTicker = 0;
-                jumpIndex++;
-                if (jumpIndex >= jumpFrames.length) {
-                    jumpAnimPlaying = false;
-                    jumpIndex = 0;
-                    frameIndex = 0;
-                    if (runFrames != null && runFrames.length > 0) {
-                        image = runFrames[0];
-                        width = image.getWidth();
-                        if (!sliding) {
-                            height = image.getHeight();
-                        }
-                    }
-                } else {
-                    image = jumpFrames[jumpIndex];
-                    width = image.getWidth();
-                    if (!sliding) {
-                        height = image.getHeight();
-                    }
-                }
-            }
-        } else if (slideAnimActive && slideFrames != null && slideFrames.length > 0) {
-            slideTicker++;
-            if (slideTicker >= slideFramesPerStep) {
-                slideTicker = 0;
-                if (!slideReleasePlaying) {
-                    if (slideIndex + 1 < slideDownCount) {
-                        slideIndex++;
-                    }
-                } else {
-                    if (slideIndex + 1 < slideFrames.length) {
-                        slideIndex++;
-                    } else {
-                        slideAnimActive = false;
-                        slideReleasePlaying = false;
-                        sliding = false;
-                        slideIndex = 0;
-                        if (runFrames != null && runFrames.length > 0) {
-                            frameIndex = 0;
-                            image = runFrames[0];
-                            width = image.getWidth();
-                            height = image.getHeight();
-                        }
-                    }
-                }
-                if (slideAnimActive) {
-                    image = slideFrames[slideIndex];
-                    width = image.getWidth();
-                    height = image.getHeight();
-                }
-            }
-        } else if (runFrames != null && runFrames.length > 0) {
-            int runStep = Math.max(1, (int) Math.round(framesPerStep / Math.max(0.1, runAnimSpeedMultiplier)));
-            frameTicker++;
-            if (frameTicker >= runStep) {
-                frameTicker = 0;
-                frameIndex = (frameIndex + 1) % runFrames.length;
-                image = runFrames[frameIndex];
-                width = image.getWidth();
-                height = image.getHeight();
+        AnimState s = anim;
+        if (s == null) {
+            return;
+        }
+        animTime += (s == states[RUN]) ? dt * Math.max(0.1, runAnimSpeedMultiplier) : dt;
+        while (animTime + TIME_EPSILON >= s.frameSeconds) {
+            animTime -= s.frameSeconds;
+            if (animFrame < s.last) {
+                showFrame(s, animFrame + 1);
+            } else if (s.end == END_LOOP) {
+                showFrame(s, s.first);
+            } else if (s.end == END_HOLD) {
+                animTime = 0;
+                break;
+            } else {
+                enter(s.next);
+                break;
             }
         }
     }
 
+    // Switches to a table row; a state without frames falls back to running (or to no animation at all).
+    private void enter(int state) {
+        AnimState next = states[state];
+        if (next == null && state != RUN) {
+            next = states[RUN];
+        }
+        if (anim != null && anim.slide && (next == null || !next.slide)) {
+            sliding = false;
+        }
+        anim = next;
+        animTime = 0;
+        if (next != null) {
+            showFrame(next, next.first);
+        }
+    }
+
+    private void showFrame(AnimState s, int frame) {
+        animFrame = frame;
+        image = s.frames[frame];
+        width = s.widths[frame];
+        if (!sliding || s.slide) {
+            height = s.heights[frame];
+        }
+    }
+
+    public void reset(double groundY) {
+        velocityY = 0;
+        onGround = true;
+        sliding = false;
+        enter(RUN);
+        width = originalWidth;
+        height = originalHeight;
+        setY(groundY);
+    }
+
     public void jump() {
         
         if (onGround || sliding) {
             
             sliding = false;
-            slideAnimActive = false;
-            slideReleasePlaying = false;
 
             velocityY = jumpVelocity;
             onGround = false;
-            if (jumpFrames != null && jumpFrames.length > 0) {
-                jumpAnimPlaying = true;
-                jumpIndex = 0;
-                jumpTicker = 0;
-                image = jumpFrames[0];
-                width = image.getWidth();
-                if (!sliding) {
-                    height = image.getHeight();
-                }
-            }
+            enter(JUMP);
         }
     }
 
     public void startSlide() {
         if (!sliding) {
             sliding = true;
-            if (slideFrames != null && slideFrames.length > 0) {
-                slideAnimActive = true;
-                slideReleasePlaying = false;
-                slideIndex = 0;
-                slideTicker = 0;
-                image = slideFrames[0];
-                width = image.getWidth();
-                height = image.getHeight();
-                
+            if (states[SLIDE_DOWN] != null) {
+                enter(SLIDE_DOWN);
             } else {
                 if (onGround) {
                     height = originalHeight / 2;
@@ -209,9 +222,10 @@ class Player extends Sprite {
 
     public void endSlide() {
         if (sliding) {
-            if (slideFrames != null && slideFrames.length > 0) {
-                slideReleasePlaying = true;
-                slideIndex = Math.max(slideDownCount - 1, 0);
+            if (states[SLIDE_DOWN] != null) {
+                if (anim == states[SLIDE_DOWN]) {
+                    enter(SLIDE_RELEASE);
+                }
             } else {
                 y -= originalHeight / 2;
                 height = (image != null) ? image.getHeight() : originalHeight;
@@ -220,6 +234,14 @@ class Player extends Sprite {
         }
     }
 
+    public void setSlideVisualFrames(BufferedImage[] frames) {
+        if (frames != null && slideFrames != null && frames.length == slideFrames.length) {
+            this.slideVisualFrames = frames.clone();
+        } else {
+            this.slideVisualFrames = null;
+        }
+    }
+
     public boolean isOnGround() {
         return onGround;
     }
@@ -239,31 +261,60 @@ class Player extends Sprite {
         this.runAnimSpeedMultiplier = m;
     }
     @Override
-    public void draw(Graphics2D g) {
-        if (slideAnimActive && slideFrames != null && slideFrames.length > 0) {
-            int drawW = originalWidth;
-            int drawH = Math.max(1, (int) Math.round(originalHeight * SLIDE_VISUAL_SCALE));
-            int drawX = (int) Math.round(x);
-            int drawY = (int) Math.round(y + originalHeight - drawH);
-            BufferedImage toDraw = (image != null) ? image : slideFrames[Math.max(0, Math.min(slideIndex, slideFrames.length - 1))];
-            g.drawImage(toDraw, drawX, drawY, drawW, drawH, null);
-        } else if (image != null) {
-            g.drawImage(image, (int) Math.round(x), (int) Math.round(y), width, height, null);
+    public void draw(Graphics2D g, double alpha) {
+        int drawX = renderX(alpha);
+        int drawY = renderY(alpha) + getDrawOffsetY();
+        BufferedImage toDraw = getDrawFrame();
+        if (toDraw != null) {
+            drawFrame(g, toDraw, drawX, drawY, getDrawWidth(), getDrawHeight());
         } else {
             g.setColor(Color.BLUE);
-            g.fillRect((int) Math.round(x), (int) Math.round(y), width, height);
+            g.fillRect(drawX, drawY, width, height);
         }
     }
 
-    @Override
-    public Rectangle getBounds() {
-        if (slideAnimActive && slideFrames != null && slideFrames.length > 0) {
-            int drawW = originalWidth;
-            int drawH = Math.max(1, (int) Math.round(originalHeight * SLIDE_VISUAL_SCALE));
-            int drawX = (int) Math.round(x);
-            int drawY = (int) Math.round(y + originalHeight - drawH);
-            return new Rectangle(drawX, drawY, drawW, drawH);
+    public BufferedImage getDrawFrame() {
+        if (isSlideVisual()) {
+            return (slideVisualFrames != null) ? slideVisualFrames[animFrame] : image;
+        }
+        return image;
+    }
+
+    public int getDrawWidth() {
+        return isSlideVisual() ? originalWidth : width;
+    }
+
+    public int getDrawHeight() {
+        return isSlideVisual() ? slideDrawHeight : height;
+    }
+
+    public int getDrawOffsetY() {
+        return isSlideVisual() ? originalHeight - slideDrawHeight : 0;
+    }
+
+    public BufferedImage getCollisionFrame() {
+        if (isSlideVisual()) {
+            return (slideVisualFrames != null) ? slideVisualFrames[animFrame] : null;
         }
-        return super.getBounds();
+        return image;
+    }
+
+    private boolean isSlideVisual() {
+        return anim != null && anim.slide;
+    }
+
+    @Override
+    public int getBoundsY() {
+        return isSlideVisual() ? (int) Math.round(y + originalHeight - slideDrawHeight) : super.getBoundsY();
+    }
+
+    @Override
+    public int getBoundsWidth() {
+        return isSlideVisual() ? originalWidth : width;
+    }
+
+    @Override
+    public int getBoundsHeight() {
+        return isSlideVisual() ? slideDrawHeight : height;
     }
 }
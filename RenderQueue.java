@@ -0,0 +1,135 @@
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+class RenderQueue {
+    static final int LAYER_PLAYER = 0;
+    static final int LAYER_OBSTACLES = 1;
+    static final int LAYER_GIFTS = 2;
+
+    private static final int INDEX_BITS = 24;
+    private static final int MAX_COMMANDS = 1 << INDEX_BITS;
+    private static final int MAX_IMAGE_IDS = (1 << 16) - 1;
+
+    private final Map<BufferedImage, Integer> imageIds = new IdentityHashMap<>();
+    private long[] keys = new long[64];
+    private BufferedImage[] images = new BufferedImage[64];
+    private SpriteAtlas.Region[] regions = new SpriteAtlas.Region[64];
+    private Color[] colors = new Color[64];
+    private int[] x = new int[64];
+    private int[] y = new int[64];
+    private int[] w = new int[64];
+    private int[] h = new int[64];
+    private int count = 0;
+    private int submitted = 0;
+    private int culled = 0;
+    private int overflowed = 0;
+    private int batches = 0;
+    private SpriteAtlas atlas;
+
+    // Render thread. Counters describe the frame between begin() and flush().
+    public void begin(SpriteAtlas atlas) {
+        this.atlas = atlas;
+        count = 0;
+        submitted = 0;
+        culled = 0;
+        overflowed = 0;
+        batches = 0;
+    }
+
+    public void submit(int layer, BufferedImage image, int drawX, int drawY, int drawW, int drawH) {
+        submit(layer, image, null, drawX, drawY, drawW, drawH);
+    }
+
+    // Placeholder rectangle for a missing image.
+    public void submitFill(int layer, Color color, int drawX, int drawY, int drawW, int drawH) {
+        submit(layer, null, color, drawX, drawY, drawW, drawH);
+    }
+
+    private void submit(int layer, BufferedImage image, Color color, int drawX, int drawY, int drawW, int drawH) {
+        submitted++;
+        if (drawX >= GameWorld.WIDTH || drawY >= GameWorld.HEIGHT || drawX + drawW <= 0 || drawY + drawH <= 0) {
+            culled++;
+            return;
+        }
+        if (count == MAX_COMMANDS) {
+            overflowed++;
+            return;
+        }
+        if (count == keys.length) {
+            grow();
+        }
+        SpriteAtlas.Region region = (atlas != null) ? atlas.find(image) : null;
+        int sheet = (region != null) ? region.getSheetIndex() + 1 : 0;
+        int i = count++;
+        keys[i] = ((long) layer << 48) | ((long) (sheet & 0xFF) << 40) | ((long) imageId(image) << INDEX_BITS) | i;
+        images[i] = image;
+        regions[i] = region;
+        colors[i] = color;
+        x[i] = drawX;
+        y[i] = drawY;
+        w[i] = drawW;
+        h[i] = drawH;
+    }
+
+    // Draws in layer order; within a layer, commands sharing an atlas sheet and then an image run together,
+    // otherwise in submission order.
+    public void flush(Graphics2D g) {
+        Arrays.sort(keys, 0, count);
+        long lastSource = -1;
+        for (int k = 0; k < count; k++) {
+            long key = keys[k];
+            int i = (int) (key & (MAX_COMMANDS - 1));
+            long source = key >>> INDEX_BITS;
+            if (source != lastSource) {
+                batches++;
+                lastSource = source;
+            }
+            if (regions[i] != null) {
+                regions[i].draw(g, x[i], y[i], w[i], h[i]);
+            } else if (images[i] != null) {
+                g.drawImage(images[i], x[i], y[i], w[i], h[i], null);
+            } else if (colors[i] != null) {
+                g.setColor(colors[i]);
+                g.fillRect(x[i], y[i], w[i], h[i]);
+            }
+            images[i] = null;
+            regions[i] = null;
+            colors[i] = null;
+        }
+        count = 0;
+    }
+
+    public int getSubmittedCount() { return submitted; }
+    public int getCulledCount() { return culled; }
+    // On-screen commands dropped because the queue hit its index limit; never expected in practice.
+    public int getOverflowCount() { return overflowed; }
+    public int getBatchCount() { return batches; }
+
+    private int imageId(BufferedImage image) {
+        if (image == null) {
+            return 0;
+        }
+        Integer id = imageIds.get(image);
+        if (id == null) {
+            id = Math.min(imageIds.size() + 1, MAX_IMAGE_IDS);
+            imageIds.put(image, id);
+        }
+        return id;
+    }
+
+    private void grow() {
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        images = Arrays.copyOf(images, capacity);
+        regions = Arrays.copyOf(regions, capacity);
+        colors = Arrays.copyOf(colors, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        w = Arrays.copyOf(w, capacity);
+        h = Arrays.copyOf(h, capacity);
+    }
+}
@@ -0,0 +1,154 @@
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+class RenderTarget {
+    private static final int LOGICAL_WIDTH = GameWorld.WIDTH;
+    private static final int LOGICAL_HEIGHT = GameWorld.HEIGHT;
+    private static final double FIXED_SCALE = Double.parseDouble(System.getProperty("stickman.renderScale", "0"));
+    private static final double MIN_SCALE = Double.parseDouble(System.getProperty("stickman.renderScale.min", "0.5"));
+    private static final double MAX_SCALE = Double.parseDouble(System.getProperty("stickman.renderScale.max", "1.0"));
+    private static final double SCALE_STEP = 0.05;
+    private static final double BUDGET_FRACTION = 0.8;
+    private static final double RAISE_FRACTION = 0.55;
+    private static final int COOLDOWN_FRAMES = 30;
+
+    private final long budgetNs;
+    private VolatileImage surface;
+    private BufferedImage fallback;
+    private double scale;
+    private int width;
+    private int height;
+    private double frameCostNs = 0.0;
+    private int cooldown = COOLDOWN_FRAMES;
+
+    // Where the last blit put the logical view in the window; replaced as a whole so the EDT never mixes
+    // the offset of one resize with the scale of another.
+    private static final class Viewport {
+        final int x;
+        final int y;
+        final double scale;
+
+        Viewport(int x, int y, double scale) {
+            this.x = x;
+            this.y = y;
+            this.scale = scale;
+        }
+    }
+
+    private volatile Viewport viewport = new Viewport(0, 0, 1.0);
+
+    RenderTarget(long frameBudgetNs) {
+        budgetNs = (long) (frameBudgetNs * BUDGET_FRACTION);
+        scale = (FIXED_SCALE > 0) ? FIXED_SCALE : Math.min(1.0, MAX_SCALE);
+    }
+
+    public double getScale() { return scale; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    // Render thread. Returns a graphics context for the internal target, already scaled so callers keep
+    // drawing in the logical WIDTH x HEIGHT space.
+    public Graphics2D begin(GraphicsConfiguration gc) {
+        width = Math.max(1, (int) Math.round(LOGICAL_WIDTH * scale));
+        height = Math.max(1, (int) Math.round(LOGICAL_HEIGHT * scale));
+        Graphics2D g;
+        if (gc == null) {
+            if (fallback == null || fallback.getWidth() != width || fallback.getHeight() != height) {
+                fallback = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            }
+            g = fallback.createGraphics();
+        } else {
+            if (surface == null || surface.getWidth() != width || surface.getHeight() != height
+                    || surface.validate(gc) == VolatileImage.IMAGE_INCOMPATIBLE) {
+                if (surface != null) {
+                    surface.flush();
+                }
+                surface = gc.createCompatibleVolatileImage(width, height, Transparency.OPAQUE);
+            }
+            g = surface.createGraphics();
+        }
+        if (scale != 1.0) {
+            g.scale((double) width / LOGICAL_WIDTH, (double) height / LOGICAL_HEIGHT);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        }
+        return g;
+    }
+
+    public boolean contentsLost() {
+        return surface != null && surface.contentsLost();
+    }
+
+    // One scaled blit into the window, letterboxed to keep the 2:1 aspect.
+    public void blit(Graphics2D g, int windowWidth, int windowHeight) {
+        double fit = Math.min((double) windowWidth / LOGICAL_WIDTH, (double) windowHeight / LOGICAL_HEIGHT);
+        if (fit <= 0) {
+            return;
+        }
+        int w = (int) Math.round(LOGICAL_WIDTH * fit);
+        int h = (int) Math.round(LOGICAL_HEIGHT * fit);
+        int x = (windowWidth - w) / 2;
+        int y = (windowHeight - h) / 2;
+        if (w < windowWidth || h < windowHeight) {
+            g.setColor(Color.BLACK);
+            g.fillRect(0, 0, windowWidth, y);
+            g.fillRect(0, y + h, windowWidth, windowHeight - y - h);
+            g.fillRect(0, y, x, h);
+            g.fillRect(x + w, y, windowWidth - x - w, h);
+        }
+        Image image = (surface != null) ? surface : fallback;
+        if (w != width || h != height) {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        }
+        g.drawImage(image, x, y, w, h, null);
+        Viewport current = viewport;
+        if (current.x != x || current.y != y || current.scale != fit) {
+            viewport = new Viewport(x, y, fit);
+        }
+    }
+
+    // Maps logical coordinates onto the window viewport of the last blit, for overlays drawn at full resolution.
+    public void applyViewTransform(Graphics2D g) {
+        Viewport view = viewport;
+        g.translate(view.x, view.y);
+        g.scale(view.scale, view.scale);
+    }
+
+    // Any thread: window (mouse) coordinates to logical game coordinates.
+    public int toLogicalX(int windowX) {
+        Viewport view = viewport;
+        return (int) Math.floor((windowX - view.x) / view.scale);
+    }
+
+    public int toLogicalY(int windowY) {
+        Viewport view = viewport;
+        return (int) Math.floor((windowY - view.y) / view.scale);
+    }
+
+    // Render thread, once per gameplay frame with its render + present cost. Drops a step quickly when the
+    // smoothed cost exceeds the budget and climbs back slowly once there is clear headroom. The upper bound
+    // also follows the window, so the target is never rendered larger than the window shows it.
+    public void adapt(long frameCostNs) {
+        this.frameCostNs += (frameCostNs - this.frameCostNs) / 8.0;
+        if (FIXED_SCALE > 0 || --cooldown > 0) {
+            return;
+        }
+        double maxScale = Math.max(MIN_SCALE, Math.floor(Math.min(MAX_SCALE, viewport.scale) / SCALE_STEP + 1e-9) * SCALE_STEP);
+        double next = Math.min(scale, maxScale);
+        if (this.frameCostNs > budgetNs) {
+            next = Math.max(MIN_SCALE, next - 2 * SCALE_STEP);
+        } else if (this.frameCostNs < budgetNs * RAISE_FRACTION) {
+            next = Math.min(maxScale, next + SCALE_STEP);
+        }
+        next = Math.round(next / SCALE_STEP) * SCALE_STEP;
+        if (next != scale) {
+            scale = next;
+            cooldown = COOLDOWN_FRAMES;
+        }
+    }
+}
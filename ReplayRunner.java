@@ -0,0 +1,41 @@
+import java.io.File;
+import java.io.IOException;
+
+class ReplayRunner {
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        if (args.length == 0) {
+            System.out.println("usage: ReplayRunner <recording.rec> [...]");
+            return;
+        }
+        GameAssets assets = GameAssets.loadAll();
+        boolean mismatch = false;
+        for (String path : args) {
+            InputRecording recording = InputRecording.load(new File(path));
+            GameWorld world = new GameWorld(assets);
+            long startNs = System.nanoTime();
+            replay(world, recording);
+            double elapsed = (System.nanoTime() - startNs) / 1_000_000_000.0;
+            double simulated = world.getTickCount() * GameWorld.SIM_DT;
+            boolean match = world.getTickCount() == recording.getFinalTick() && world.getScore() == recording.getFinalScore();
+            System.out.printf("%s: seed %d, %d ticks, score %d (recorded %d ticks, score %d) %s, %.1fs simulated in %.3fs (%.0fx)%n",
+                    path, recording.getSeed(), world.getTickCount(), world.getScore(),
+                    recording.getFinalTick(), recording.getFinalScore(), match ? "MATCH" : "MISMATCH",
+                    simulated, elapsed, simulated / Math.max(elapsed, 1e-9));
+            mismatch |= !match;
+        }
+        if (mismatch) {
+            System.exit(1);
+        }
+    }
+
+    static void replay(GameWorld world, InputRecording recording) {
+        world.setStressCount(recording.getStressCount());
+        world.reset(recording.getSeed());
+        InputRecording.Playback playback = recording.playback();
+        long limit = (recording.getFinalTick() >= 0) ? recording.getFinalTick() : Long.MAX_VALUE;
+        while (!world.isGameOver() && world.getTickCount() < limit) {
+            world.tick(GameWorld.SIM_DT, playback.inputsFor(world.getTickCount()));
+        }
+    }
+}
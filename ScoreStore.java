@@ -0,0 +1,348 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+
+class ScoreStore implements Runnable {
+    private static final int FILE_MAGIC = 0x53485343;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_BYTES = 64;
+    private static final int RECORD_MAGIC = 0x52554E31;
+    private static final int NAME_BYTES = 27;
+    private static final int CRC_OFFSET = RECORD_BYTES - 4;
+    private static final int GROW_RECORDS = 1024;
+    private static final int TOP_N = 10;
+
+    static final class Entry {
+        final String player;
+        final int score;
+        final long ticks;
+        final long seed;
+        final long timeMs;
+
+        Entry(String player, int score, long ticks, long seed, long timeMs) {
+            this.player = player;
+            this.score = score;
+            this.ticks = ticks;
+            this.seed = seed;
+            this.timeMs = timeMs;
+        }
+    }
+
+    // Immutable per-player totals. records is append-only and may be shared with the next PlayerStats of the
+    // same player, so a reader only ever looks at the first runs slots.
+    private static final class PlayerStats {
+        final int best;
+        final int runs;
+        final int[] records;
+
+        PlayerStats(int best, int runs, int[] records) {
+            this.best = best;
+            this.runs = runs;
+            this.records = records;
+        }
+    }
+
+    // What readers see: replaced as a whole by the store thread after open and after each append.
+    private static final class Snapshot {
+        final Map<String, PlayerStats> players;
+        final Entry[] top;
+        final int recordCount;
+        final MappedByteBuffer map;
+
+        Snapshot(Map<String, PlayerStats> players, Entry[] top, int recordCount, MappedByteBuffer map) {
+            this.players = players;
+            this.top = top;
+            this.recordCount = recordCount;
+            this.map = map;
+        }
+    }
+
+    private static final Entry STOP = new Entry("", 0, 0, 0, 0);
+
+    private final File file;
+    private final LinkedBlockingQueue<Entry> pending = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private final CRC32 crc = new CRC32();
+    private final byte[] scratch = new byte[RECORD_BYTES];
+    private final ByteBuffer recordView = ByteBuffer.wrap(scratch);
+    private final CountDownLatch opened = new CountDownLatch(1);
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyMap(), new Entry[0], 0, null);
+    private volatile Runnable onUpdate = () -> {};
+
+    // Store thread only.
+    private final Map<String, PlayerStats> players = new HashMap<>();
+    private Entry[] top = new Entry[0];
+    private FileChannel channel;
+    private MappedByteBuffer map;
+    private int recordCount = 0;
+    private int skippedRecords = 0;
+
+    ScoreStore(String path) {
+        file = new File(path);
+        thread = new Thread(this, "ScoreStore");
+        thread.setDaemon(true);
+        thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::closeAndWait, "ScoreStore-shutdown"));
+    }
+
+    // Any thread. Only enqueues; the mapped write, fsync and index update happen on the store thread.
+    public void submit(String player, int score, long ticks, long seed) {
+        pending.offer(new Entry(player, score, ticks, seed, System.currentTimeMillis()));
+    }
+
+    // Runs on the store thread after each record is durable and indexed.
+    public void setOnUpdate(Runnable onUpdate) {
+        this.onUpdate = onUpdate;
+    }
+
+    // Readers never block: they see the last published snapshot, empty until the file has been scanned.
+    // Best first; the array is replaced rather than mutated.
+    public Entry[] topScores() {
+        return snapshot.top;
+    }
+
+    public int bestFor(String player) {
+        PlayerStats stats = snapshot.players.get(player);
+        return (stats != null) ? stats.best : 0;
+    }
+
+    public int runsFor(String player) {
+        PlayerStats stats = snapshot.players.get(player);
+        return (stats != null) ? stats.runs : 0;
+    }
+
+    // Most recent first.
+    public List<Entry> historyFor(String player, int limit) {
+        Snapshot current = snapshot;
+        List<Entry> out = new ArrayList<>();
+        PlayerStats stats = current.players.get(player);
+        if (stats == null || current.map == null) {
+            return out;
+        }
+        for (int i = stats.runs - 1; i >= 0 && out.size() < limit; i--) {
+            out.add(read(current.map, stats.records[i]));
+        }
+        return out;
+    }
+
+    public int getRecordCount() { return snapshot.recordCount; }
+
+    public void awaitOpen() throws InterruptedException {
+        opened.await();
+    }
+
+    // Entries submitted before close() are still written. The thread is never interrupted: an interrupt
+    // during channel I/O would close the channel and lose the record being written.
+    public void close() {
+        pending.offer(STOP);
+    }
+
+    private void closeAndWait() {
+        close();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            open();
+        } catch (IOException e) {
+            System.err.println("ScoreStore: failed to open '" + file + "', scores will not be saved: " + e.getMessage());
+            return;
+        } finally {
+            opened.countDown();
+        }
+        while (true) {
+            Entry entry;
+            try {
+                entry = pending.take();
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (entry == STOP) {
+                break;
+            }
+            try {
+                append(entry);
+                onUpdate.run();
+            } catch (IOException e) {
+                System.err.println("ScoreStore: failed to append score: " + e.getMessage());
+            }
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void open() throws IOException {
+        long startNs = System.nanoTime();
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        channel = new RandomAccessFile(file, "rw").getChannel();
+        long size = channel.size();
+        if (size < HEADER_BYTES) {
+            remap(HEADER_BYTES + (long) GROW_RECORDS * RECORD_BYTES);
+            map.putInt(0, FILE_MAGIC);
+            map.putInt(4, VERSION);
+            map.putInt(8, RECORD_BYTES);
+            map.force();
+        } else {
+            remap(size);
+            if (map.getInt(0) != FILE_MAGIC || map.getInt(8) != RECORD_BYTES) {
+                throw new IOException("not a score file");
+            }
+        }
+        // A record whose CRC fails (torn by power loss, or never written) is skipped; appends resume after the
+        // last good record, so a torn tail is simply overwritten.
+        int slots = (map.capacity() - HEADER_BYTES) / RECORD_BYTES;
+        int lastGood = -1;
+        for (int slot = 0; slot < slots; slot++) {
+            if (isValid(slot)) {
+                index(read(map, slot), slot);
+                lastGood = slot;
+            } else if (map.getInt((int) offset(slot)) != 0) {
+                skippedRecords++;
+            }
+        }
+        recordCount = lastGood + 1;
+        publish();
+        System.out.printf("ScoreStore: %d records from %s in %.1f ms (%d damaged records skipped)%n",
+                recordCount, file, (System.nanoTime() - startNs) / 1e6, skippedRecords);
+    }
+
+    private void append(Entry entry) throws IOException {
+        int slot = recordCount;
+        long end = offset(slot) + RECORD_BYTES;
+        if (end > map.capacity()) {
+            remap(end + (long) GROW_RECORDS * RECORD_BYTES);
+        }
+        Arrays.fill(scratch, (byte) 0);
+        ByteBuffer record = recordView;
+        record.putInt(0, RECORD_MAGIC);
+        record.putLong(4, entry.timeMs);
+        record.putLong(12, entry.seed);
+        record.putLong(20, entry.ticks);
+        record.putInt(28, entry.score);
+        byte[] name = entry.player.getBytes(StandardCharsets.UTF_8);
+        int nameLength = Math.min(name.length, NAME_BYTES);
+        // Never cut through a multibyte character: back up past UTF-8 continuation bytes.
+        while (nameLength < name.length && nameLength > 0 && (name[nameLength] & 0xC0) == 0x80) {
+            nameLength--;
+        }
+        scratch[32] = (byte) nameLength;
+        System.arraycopy(name, 0, scratch, 33, nameLength);
+        if (nameLength < name.length) {
+            entry = new Entry(new String(name, 0, nameLength, StandardCharsets.UTF_8), entry.score, entry.ticks, entry.seed, entry.timeMs);
+        }
+        crc.reset();
+        crc.update(scratch, 0, CRC_OFFSET);
+        record.putInt(CRC_OFFSET, (int) crc.getValue());
+
+        int position = (int) offset(slot);
+        map.put(position, scratch, 0, RECORD_BYTES);
+        map.force(position, RECORD_BYTES);
+        recordCount = slot + 1;
+        index(entry, slot);
+        publish();
+    }
+
+    private boolean isValid(int slot) {
+        int position = (int) offset(slot);
+        if (map.getInt(position) != RECORD_MAGIC) {
+            return false;
+        }
+        map.get(position, scratch, 0, RECORD_BYTES);
+        crc.reset();
+        crc.update(scratch, 0, CRC_OFFSET);
+        return (int) crc.getValue() == map.getInt(position + CRC_OFFSET) && (scratch[32] & 0xFF) <= NAME_BYTES;
+    }
+
+    private static Entry read(MappedByteBuffer map, int slot) {
+        int position = (int) offset(slot);
+        int nameLength = Math.min(map.get(position + 32) & 0xFF, NAME_BYTES);
+        byte[] name = new byte[nameLength];
+        map.get(position + 33, name, 0, nameLength);
+        return new Entry(new String(name, StandardCharsets.UTF_8), map.getInt(position + 28),
+                map.getLong(position + 20), map.getLong(position + 12), map.getLong(position + 4));
+    }
+
+    private void index(Entry entry, int slot) {
+        PlayerStats old = players.get(entry.player);
+        int runs = (old != null) ? old.runs : 0;
+        int[] records = (old != null) ? old.records : new int[8];
+        if (runs == records.length) {
+            records = Arrays.copyOf(records, runs * 2);
+        }
+        records[runs] = slot;
+        players.put(entry.player, new PlayerStats(Math.max((old != null) ? old.best : 0, entry.score), runs + 1, records));
+
+        Entry[] current = top;
+        if (current.length == TOP_N && entry.score <= current[TOP_N - 1].score) {
+            return;
+        }
+        int length = Math.min(TOP_N, current.length + 1);
+        Entry[] next = new Entry[length];
+        int i = 0;
+        int j = 0;
+        boolean placed = false;
+        while (i < length) {
+            if (!placed && (j >= current.length || entry.score > current[j].score)) {
+                next[i++] = entry;
+                placed = true;
+            } else {
+                next[i++] = current[j++];
+            }
+        }
+        top = next;
+    }
+
+    private void publish() {
+        snapshot = new Snapshot(Collections.unmodifiableMap(new HashMap<>(players)), top, recordCount, map);
+    }
+
+    private void remap(long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("score file too large");
+        }
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    private static long offset(int slot) {
+        return HEADER_BYTES + (long) slot * RECORD_BYTES;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        ScoreStore store = new ScoreStore((args.length > 0) ? args[0] : GameCanvas.SCORE_FILE);
+        store.awaitOpen();
+        Snapshot snapshot = store.snapshot;
+        Entry[] top = snapshot.top;
+        for (int i = 0; i < top.length; i++) {
+            System.out.printf("%2d. %-16s %6d  %6.1fs  seed %d%n", i + 1, top[i].player, top[i].score, top[i].ticks * GameWorld.SIM_DT, top[i].seed);
+        }
+        for (Map.Entry<String, PlayerStats> e : snapshot.players.entrySet()) {
+            System.out.printf("%-16s best %6d over %d runs%n", e.getKey(), e.getValue().best, e.getValue().runs);
+        }
+        store.close();
+    }
+}
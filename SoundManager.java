@@ -1,78 +1,571 @@
 import javax.sound.sampled.*;
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 
-class SoundManager {
-    
-    private static final double BGM_VOLUME = 0.7;
-    private static final double SFX_VOLUME = 1.0;
-    private Clip bgmClip;
-    private Clip sfxClip;
+class SoundManager implements Runnable {
+
+    private static final float BGM_VOLUME = 0.7f;
+    private static final float SFX_VOLUME = 1.0f;
+
+    static final float SAMPLE_RATE = 44100f;
+    private static final int CHANNELS = 2;
+    private static final int FRAME_BYTES = CHANNELS * 2;
+    private static final int BLOCK_FRAMES = 256;
+    private static final int VOICES = Math.max(1, Integer.getInteger("stickman.audio.voices", 8));
+    private static final int LINE_BUFFER_FRAMES = Math.max(BLOCK_FRAMES * 2, Integer.getInteger("stickman.audio.bufferFrames", 1024));
+    private static final long IDLE_PARK_NS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long BLOCK_PARK_NS = (long) (BLOCK_FRAMES / SAMPLE_RATE * 1_000_000_000L / 4);
+    private static final long REPORT_INTERVAL_NS = TimeUnit.SECONDS.toNanos(5);
+    private static final int STREAM_CHUNK_FRAMES = 4096;
+    private static final int CROSSFADE_FRAMES = (int) (SAMPLE_RATE * Integer.getInteger("stickman.audio.crossfadeMs", 1500) / 1000);
+
+    private static final int OP_PLAY_BGM_LOOP = 0;
+    private static final int OP_STOP_BGM = 1;
+    private static final int OP_PLAY_SFX = 2;
+    private static final int OP_SHUTDOWN = 3;
+
+    private final AudioCommandQueue commands = new AudioCommandQueue(64);
+    private final AtomicInteger droppedCommands = new AtomicInteger();
+    private final Thread audioThread;
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "AudioLoader");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile boolean running = true;
+
+    private volatile Map<String, short[]> effects = Collections.emptyMap();
+    private volatile boolean effectsLoaded = false;
+    private final Set<String> reportedMissing = new HashSet<>();
+    private final short[][] voiceSamples = new short[VOICES][];
+    private final int[] voicePos = new int[VOICES];
+    private final float[] voiceGain = new float[VOICES];
+    private final int[] mixBuffer = new int[BLOCK_FRAMES * CHANNELS];
+    private final byte[] outBuffer = new byte[BLOCK_FRAMES * FRAME_BYTES];
+    private SourceDataLine line;
+    private boolean lineStarted = false;
+    private volatile long underruns = 0;
+    private volatile double latencyMs = 0;
+    private long reportedUnderruns = 0;
+    private long lastReportNs = 0;
+
+    private BgmStream bgm;
+    private BgmStream bgmFading;
+    private final AtomicReference<BgmStream> openedBgm = new AtomicReference<>();
+    private int bgmRequest = 0;
+
+    // Opened, looped and closed on the loader thread: the audio thread only mixes and swaps references, so
+    // starting a track or reaching the end of the file never touches the filesystem inside the line budget.
+    private static final class BgmStream {
+        private final String path;
+        private final int channels;
+        private final double step;
+        private final byte[] chunk;
+        private final Executor loader;
+        private final AtomicReference<AudioInputStream> nextLoop = new AtomicReference<>();
+        private final Runnable openNextLoop = this::openNextLoop;
+        private final int request;
+        private volatile boolean closed = false;
+        private volatile boolean loopFailed = false;
+        private AudioInputStream in;
+        private boolean drained = false;
+        private int chunkFrames = 0;
+        private int chunkIndex = 0;
+        private int l0, r0, l1, r1;
+        private double frac = 0;
+        private float gain = 0f;
+        private float target = 0f;
+        private float gainStep = 0f;
+        private boolean ended = false;
+
+        private BgmStream(String path, AudioInputStream in, Executor loader, int request) {
+            this.path = path;
+            this.in = in;
+            this.loader = loader;
+            this.request = request;
+            this.channels = in.getFormat().getChannels();
+            this.step = in.getFormat().getSampleRate() / SAMPLE_RATE;
+            this.chunk = new byte[STREAM_CHUNK_FRAMES * channels * 2];
+            nextFrame();
+            l0 = l1;
+            r0 = r1;
+            nextFrame();
+            loader.execute(openNextLoop);
+        }
+
+        // Loader thread.
+        static BgmStream open(String path, Executor loader, int request) {
+            AudioInputStream in = openPcm(path);
+            return (in != null) ? new BgmStream(path, in, loader, request) : null;
+        }
+
+        // Loader thread.
+        private void openNextLoop() {
+            AudioInputStream next = openPcm(path);
+            if (next == null) {
+                loopFailed = true;
+                return;
+            }
+            nextLoop.set(next);
+            if (closed) {
+                closeQuietly(nextLoop.getAndSet(null));
+            }
+        }
+
+        void fadeTo(float gainTarget, int frames) {
+            target = gainTarget;
+            gainStep = (frames > 0) ? (gainTarget - gain) / frames : 0f;
+            if (gainStep == 0f) {
+                gain = gainTarget;
+            }
+        }
+
+        boolean isSilent() {
+            return ended || (gain <= 0f && target <= 0f);
+        }
+
+        void mix(int[] mix, int frames) {
+            for (int i = 0, o = 0; i < frames; i++, o += CHANNELS) {
+                if (gainStep != 0f) {
+                    gain += gainStep;
+                    if ((gainStep > 0f && gain >= target) || (gainStep < 0f && gain <= target)) {
+                        gain = target;
+                        gainStep = 0f;
+                    }
+                }
+                mix[o] += (int) ((l0 + (l1 - l0) * frac) * gain);
+                mix[o + 1] += (int) ((r0 + (r1 - r0) * frac) * gain);
+                frac += step;
+                while (frac >= 1.0) {
+                    frac -= 1.0;
+                    l0 = l1;
+                    r0 = r1;
+                    nextFrame();
+                }
+            }
+        }
+
+        private void nextFrame() {
+            if (chunkIndex >= chunkFrames && !refill()) {
+                l1 = 0;
+                r1 = 0;
+                return;
+            }
+            int offset = chunkIndex * channels * 2;
+            l1 = sample(chunk, offset);
+            r1 = (channels > 1) ? sample(chunk, offset + 2) : l1;
+            chunkIndex++;
+        }
+
+        private boolean refill() {
+            if (ended) {
+                return false;
+            }
+            try {
+                int n = drained ? -1 : in.read(chunk, 0, chunk.length);
+                if (n <= 0) {
+                    drained = true;
+                    AudioInputStream next = nextLoop.getAndSet(null);
+                    if (next == null) {
+                        // Not opened yet: play silence until the loader hands it over.
+                        ended = loopFailed;
+                        return false;
+                    }
+                    AudioInputStream finished = in;
+                    loader.execute(() -> closeQuietly(finished));
+                    in = next;
+                    drained = false;
+                    loader.execute(openNextLoop);
+                    n = in.read(chunk, 0, chunk.length);
+                }
+                if (n <= 0) {
+                    ended = true;
+                    return false;
+                }
+                chunkFrames = n / (channels * 2);
+                chunkIndex = 0;
+                return chunkFrames > 0;
+            } catch (IOException e) {
+                System.out.println("SoundManager: Failed to stream '" + path + "': " + e.getMessage());
+                ended = true;
+                return false;
+            }
+        }
+
+        // Stops mixing at once; the files are closed on the loader thread.
+        void close() {
+            if (closed) {
+                return;
+            }
+            ended = true;
+            closed = true;
+            loader.execute(this::closeStreams);
+        }
+
+        private void closeStreams() {
+            closeQuietly(in);
+            in = null;
+            closeQuietly(nextLoop.getAndSet(null));
+        }
+
+        private static void closeQuietly(AudioInputStream stream) {
+            if (stream != null) {
+                try { stream.close(); } catch (IOException ignored) {}
+            }
+        }
+    }
+
+    SoundManager() {
+        audioThread = new Thread(this, "Audio");
+        audioThread.setDaemon(true);
+        audioThread.setPriority(Thread.MAX_PRIORITY);
+        audioThread.start();
+    }
+
+    // Decodes every .wav in dir except the given music tracks, on the loader thread. playSfx only plays
+    // effects decoded here; the mixer never decodes.
+    public void preloadEffects(String dir, String... bgmTracks) {
+        loader.execute(() -> loadEffects(dir, bgmTracks));
+    }
 
     public void playBgmLoop(String path) {
-        stopBgm();
-        Clip clip = openClip(path);
-        if (clip == null) return;
-    setVolume(clip, BGM_VOLUME);
-        clip.loop(Clip.LOOP_CONTINUOUSLY);
-        clip.start();
-        bgmClip = clip;
+        submit(OP_PLAY_BGM_LOOP, path, 0f);
     }
 
     public void stopBgm() {
-        if (bgmClip != null) {
-            try { bgmClip.stop(); } catch (Exception ignored) {}
-            try { bgmClip.close(); } catch (Exception ignored) {}
-            bgmClip = null;
-        }
+        submit(OP_STOP_BGM, null, 0f);
     }
 
     public void playSfx(String path) {
-        
-        if (sfxClip != null) {
-            try { sfxClip.stop(); } catch (Exception ignored) {}
-            try { sfxClip.close(); } catch (Exception ignored) {}
-            sfxClip = null;
-        }
-        Clip clip = openClip(path);
-        if (clip == null) return;
-    setVolume(clip, SFX_VOLUME);
-        clip.addLineListener(event -> {
-            if (event.getType() == LineEvent.Type.STOP) {
-                try { clip.close(); } catch (Exception ignored) {}
+        playSfx(path, SFX_VOLUME);
+    }
+
+    public void playSfx(String path, float gain) {
+        submit(OP_PLAY_SFX, new File(path).getPath(), gain);
+    }
+
+    public void shutdown() {
+        submit(OP_SHUTDOWN, null, 0f);
+    }
+
+    public long getUnderrunCount() { return underruns; }
+    public double getLatencyMs() { return latencyMs; }
+    public int getDroppedCommandCount() { return droppedCommands.get(); }
+
+    private void submit(int op, String path, float gain) {
+        if (!commands.offer(op, path, gain)) {
+            droppedCommands.incrementAndGet();
+        }
+        LockSupport.unpark(audioThread);
+    }
+
+    @Override
+    public void run() {
+        openLine();
+        lastReportNs = System.nanoTime();
+        while (running) {
+            drainCommands();
+            installOpenedBgm();
+            if (line == null) {
+                LockSupport.parkNanos(this, IDLE_PARK_NS);
+            } else if (line.available() >= outBuffer.length) {
+                mixBlock();
+            } else {
+                LockSupport.parkNanos(this, BLOCK_PARK_NS);
             }
-        });
-        clip.start();
-        sfxClip = clip;
+            reportUnderruns();
+        }
+        closeBgm(bgm);
+        closeBgm(bgmFading);
+        closeBgm(openedBgm.getAndSet(null));
+        loader.shutdown();
+        if (line != null) {
+            line.stop();
+            line.close();
+            line = null;
+        }
     }
 
-    private Clip openClip(String path) {
+    private void drainCommands() {
+        while (commands.poll()) {
+            String path = commands.path();
+            try {
+                switch (commands.op()) {
+                    case OP_PLAY_BGM_LOOP:
+                        startBgmLoop(path);
+                        break;
+                    case OP_STOP_BGM:
+                        fadeOutBgm();
+                        break;
+                    case OP_PLAY_SFX:
+                        startVoice(sfx(path), commands.gain());
+                        break;
+                    case OP_SHUTDOWN:
+                        running = false;
+                        break;
+                }
+            } catch (RuntimeException e) {
+                System.out.println("SoundManager: command for '" + path + "' failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void openLine() {
+        AudioFormat format = new AudioFormat(SAMPLE_RATE, 16, CHANNELS, true, false);
         try {
-            File file = new File(path);
-            if (!file.exists()) {
-                System.out.println("SoundManager: File not found: " + path);
-                return null;
-            }
-            AudioInputStream ais = AudioSystem.getAudioInputStream(file);
-            Clip clip = AudioSystem.getClip();
-            clip.open(ais);
-            try { ais.close(); } catch (IOException ignored) {}
-            return clip;
-        } catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
-            System.out.println("SoundManager: Failed to open '" + path + "': " + e.getMessage());
+            SourceDataLine opened = AudioSystem.getSourceDataLine(format);
+            opened.open(format, LINE_BUFFER_FRAMES * FRAME_BYTES);
+            line = opened;
+            latencyMs = (line.getBufferSize() / FRAME_BYTES) / SAMPLE_RATE * 1000.0;
+            System.out.printf("SoundManager: mixer %d voices, %.0f Hz, buffer %d frames (%.1f ms latency)%n",
+                    VOICES, SAMPLE_RATE, line.getBufferSize() / FRAME_BYTES, latencyMs);
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            System.out.println("SoundManager: no output line, effects disabled: " + e.getMessage());
+        }
+    }
+
+    private void mixBlock() {
+        int[] mix = mixBuffer;
+        Arrays.fill(mix, 0);
+        for (int v = 0; v < VOICES; v++) {
+            short[] samples = voiceSamples[v];
+            if (samples == null) {
+                continue;
+            }
+            int pos = voicePos[v];
+            float gain = voiceGain[v];
+            int n = Math.min(samples.length - pos, mix.length);
+            for (int i = 0; i < n; i++) {
+                mix[i] += (int) (samples[pos + i] * gain);
+            }
+            pos += n;
+            if (pos >= samples.length) {
+                voiceSamples[v] = null;
+            }
+            voicePos[v] = pos;
+        }
+        if (bgm != null) {
+            bgm.mix(mix, BLOCK_FRAMES);
+        }
+        if (bgmFading != null) {
+            bgmFading.mix(mix, BLOCK_FRAMES);
+            if (bgmFading.isSilent()) {
+                closeBgm(bgmFading);
+                bgmFading = null;
+            }
+        }
+
+        byte[] out = outBuffer;
+        for (int i = 0, b = 0; i < mix.length; i++, b += 2) {
+            int s = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[i]));
+            out[b] = (byte) s;
+            out[b + 1] = (byte) (s >> 8);
+        }
+
+        if (lineStarted && line.available() >= line.getBufferSize()) {
+            underruns++;
+        }
+        line.write(out, 0, out.length);
+        if (!lineStarted) {
+            line.start();
+            lineStarted = true;
+        }
+    }
+
+    private void reportUnderruns() {
+        long now = System.nanoTime();
+        if (now - lastReportNs < REPORT_INTERVAL_NS) {
+            return;
+        }
+        lastReportNs = now;
+        long total = underruns;
+        int dropped = droppedCommands.get();
+        if (total != reportedUnderruns) {
+            System.out.printf("SoundManager: %d buffer underruns (+%d), latency %.1f ms, %d dropped commands%n",
+                    total, total - reportedUnderruns, latencyMs, dropped);
+            reportedUnderruns = total;
+        }
+    }
+
+    private void startVoice(short[] samples, float gain) {
+        if (samples == null || line == null) {
+            return;
+        }
+        int voice = 0;
+        for (int v = 0; v < VOICES; v++) {
+            if (voiceSamples[v] == null) {
+                voice = v;
+                break;
+            }
+            if (voicePos[v] > voicePos[voice]) {
+                voice = v;
+            }
+        }
+        voiceSamples[voice] = samples;
+        voicePos[voice] = 0;
+        voiceGain[voice] = Math.max(0f, gain);
+    }
+
+    private short[] sfx(String path) {
+        short[] samples = effects.get(path);
+        if (samples == null && effectsLoaded && reportedMissing.add(path)) {
+            System.err.println("SoundManager: '" + path + "' is not a preloaded effect, not playing it");
+        }
+        return samples;
+    }
+
+    // Loader thread.
+    private void loadEffects(String dir, String[] bgmTracks) {
+        long startNs = System.nanoTime();
+        Set<File> excluded = new HashSet<>();
+        for (String track : bgmTracks) {
+            excluded.add(new File(track));
+        }
+        File[] files = new File(dir).listFiles((d, name) -> name.toLowerCase(Locale.ROOT).endsWith(".wav"));
+        if (files == null) {
+            System.err.println("SoundManager: no effects directory '" + dir + "'");
+            files = new File[0];
+        }
+        Arrays.sort(files);
+        Map<String, short[]> loaded = new HashMap<>(effects);
+        long bytes = 0;
+        for (File file : files) {
+            if (excluded.contains(file)) {
+                continue;
+            }
+            short[] samples = decode(file.getPath());
+            if (samples != null) {
+                loaded.put(file.getPath(), samples);
+                bytes += samples.length * 2L;
+            }
+        }
+        effects = Collections.unmodifiableMap(loaded);
+        effectsLoaded = true;
+        System.out.printf("SoundManager: %d effects decoded from %s (%d KB) in %.0f ms%n",
+                loaded.size(), dir, bytes / 1024, (System.nanoTime() - startNs) / 1e6);
+    }
+
+    private short[] decode(String path) {
+        AudioInputStream in = openPcm(path);
+        if (in == null) {
+            return null;
+        }
+        try (AudioInputStream pcm = in) {
+            return resample(pcm.readAllBytes(), pcm.getFormat().getChannels(), pcm.getFormat().getSampleRate());
+        } catch (IOException e) {
+            System.out.println("SoundManager: Failed to decode '" + path + "': " + e.getMessage());
             return null;
         }
     }
 
-    private void setVolume(Clip clip, double volume01) {
+    private static AudioInputStream openPcm(String path) {
+        File file = new File(path);
+        if (!file.exists()) {
+            System.out.println("SoundManager: File not found: " + path);
+            return null;
+        }
+        AudioInputStream source = null;
         try {
-            FloatControl control = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
-            double v = Math.max(0.0001, Math.min(1.0, volume01));
-            float dB = (float) (20.0 * Math.log10(v));
-            dB = Math.max(control.getMinimum(), Math.min(control.getMaximum(), dB));
-            control.setValue(dB);
-        } catch (Exception ignored) {
-            
+            source = AudioSystem.getAudioInputStream(file);
+            AudioFormat sf = source.getFormat();
+            int channels = sf.getChannels();
+            AudioFormat pcm = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, sf.getSampleRate(), 16,
+                    channels, channels * 2, sf.getSampleRate(), false);
+            return sf.matches(pcm) ? source : AudioSystem.getAudioInputStream(pcm, source);
+        } catch (UnsupportedAudioFileException | IOException | IllegalArgumentException e) {
+            System.out.println("SoundManager: Failed to open '" + path + "': " + e.getMessage());
+            if (source != null) {
+                try { source.close(); } catch (IOException ignored) {}
+            }
+            return null;
+        }
+    }
+
+    private static short[] resample(byte[] bytes, int channels, float rate) {
+        int frames = bytes.length / (channels * 2);
+        if (frames == 0) {
+            return null;
+        }
+        int outFrames = (int) ((long) frames * (long) SAMPLE_RATE / (long) rate);
+        short[] out = new short[outFrames * CHANNELS];
+        double step = rate / SAMPLE_RATE;
+        for (int j = 0; j < outFrames; j++) {
+            double src = j * step;
+            int i0 = (int) src;
+            int i1 = Math.min(i0 + 1, frames - 1);
+            double frac = src - i0;
+            for (int c = 0; c < CHANNELS; c++) {
+                int sc = Math.min(c, channels - 1);
+                int s0 = sample(bytes, (i0 * channels + sc) * 2);
+                int s1 = sample(bytes, (i1 * channels + sc) * 2);
+                out[j * CHANNELS + c] = (short) Math.round(s0 + (s1 - s0) * frac);
+            }
+        }
+        return out;
+    }
+
+    private static int sample(byte[] bytes, int offset) {
+        return (short) ((bytes[offset] & 0xFF) | (bytes[offset + 1] << 8));
+    }
+
+    // The current track starts fading now; the new one fades in once the loader has opened it.
+    private void startBgmLoop(String path) {
+        if (line == null) {
+            return;
+        }
+        fadeOutBgm();
+        int request = bgmRequest;
+        loader.execute(() -> {
+            BgmStream opened = BgmStream.open(path, loader, request);
+            if (opened != null) {
+                closeBgm(openedBgm.getAndSet(opened));
+                LockSupport.unpark(audioThread);
+            }
+        });
+    }
+
+    private void installOpenedBgm() {
+        BgmStream opened = openedBgm.getAndSet(null);
+        if (opened == null) {
+            return;
+        }
+        if (opened.request != bgmRequest) {
+            closeBgm(opened);
+            return;
+        }
+        opened.fadeTo(BGM_VOLUME, CROSSFADE_FRAMES);
+        bgm = opened;
+    }
+
+    // Also cancels a track that is still being opened.
+    private void fadeOutBgm() {
+        bgmRequest++;
+        if (bgm == null) {
+            return;
+        }
+        closeBgm(bgmFading);
+        bgmFading = bgm;
+        bgmFading.fadeTo(0f, CROSSFADE_FRAMES);
+        bgm = null;
+    }
+
+    private static void closeBgm(BgmStream stream) {
+        if (stream != null) {
+            stream.close();
         }
     }
 }
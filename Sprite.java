@@ -5,13 +5,18 @@ import java.awt.image.BufferedImage;
 abstract class Sprite {
     protected double x;
     protected double y;
+    protected double prevX;
+    protected double prevY;
     protected int width;
     protected int height;
     protected BufferedImage image;
+    protected SpriteAtlas atlas;
 
     public Sprite(double x, double y, BufferedImage image) {
         this.x = x;
         this.y = y;
+        this.prevX = x;
+        this.prevY = y;
         this.image = image;
         if (image != null) {
             this.width = image.getWidth();
@@ -19,23 +24,70 @@ abstract class Sprite {
         }
     }
 
-        public abstract void update();
+        public abstract void update(double dt);
 
-        public void draw(Graphics2D g) {
+        public void savePreviousPosition() {
+        prevX = x;
+        prevY = y;
+    }
+
+    protected int renderX(double alpha) {
+        return (int) Math.round(prevX + (x - prevX) * alpha);
+    }
+
+    protected int renderY(double alpha) {
+        return (int) Math.round(prevY + (y - prevY) * alpha);
+    }
+
+        public void draw(Graphics2D g, double alpha) {
         if (image != null) {
-            g.drawImage(image, (int) Math.round(x), (int) Math.round(y), null);
+            drawFrame(g, image, renderX(alpha), renderY(alpha), image.getWidth(), image.getHeight());
         }
     }
 
+    protected void drawFrame(Graphics2D g, BufferedImage frame, int drawX, int drawY, int drawW, int drawH) {
+        if (atlas != null) {
+            atlas.draw(g, frame, drawX, drawY, drawW, drawH);
+        } else {
+            g.drawImage(frame, drawX, drawY, drawW, drawH, null);
+        }
+    }
+
+    public void setAtlas(SpriteAtlas atlas) {
+        this.atlas = atlas;
+    }
+
         public Rectangle getBounds() {
-        return new Rectangle((int) Math.round(x), (int) Math.round(y), width, height);
+        return new Rectangle(getBoundsX(), getBoundsY(), getBoundsWidth(), getBoundsHeight());
+    }
+
+    public int getBoundsX() { return (int) Math.round(x); }
+    public int getBoundsY() { return (int) Math.round(y); }
+    public int getBoundsWidth() { return width; }
+    public int getBoundsHeight() { return height; }
+
+    public boolean intersects(Sprite other) {
+        int aw = getBoundsWidth();
+        int ah = getBoundsHeight();
+        int bw = other.getBoundsWidth();
+        int bh = other.getBoundsHeight();
+        if (aw <= 0 || ah <= 0 || bw <= 0 || bh <= 0) {
+            return false;
+        }
+        int ax = getBoundsX();
+        int ay = getBoundsY();
+        int bx = other.getBoundsX();
+        int by = other.getBoundsY();
+        return ax < bx + bw && bx < ax + aw && ay < by + bh && by < ay + ah;
     }
 
     
     public double getX() { return x; }
     public double getY() { return y; }
+    public double getPrevX() { return prevX; }
+    public double getPrevY() { return prevY; }
     public int getWidth() { return width; }
     public int getHeight() { return height; }
-    public void setX(double x) { this.x = x; }
-    public void setY(double y) { this.y = y; }
+    public void setX(double x) { this.x = x; this.prevX = x; }
+    public void setY(double y) { this.y = y; this.prevY = y; }
 }
\ No newline at end of file
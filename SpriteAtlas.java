@@ -0,0 +1,177 @@
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+class SpriteAtlas {
+    private static final int DEFAULT_SHEET_SIZE = 2048;
+    private static final int PADDING = 1;
+
+    static final class Region {
+        private final SpriteAtlas atlas;
+        private final int sheet;
+        private final int x;
+        private final int y;
+        private final int width;
+        private final int height;
+
+        Region(SpriteAtlas atlas, int sheet, int x, int y, int width, int height) {
+            this.atlas = atlas;
+            this.sheet = sheet;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+
+        public void draw(Graphics2D g, int dx, int dy, int dw, int dh) {
+            g.drawImage(atlas.sheetImage(sheet), dx, dy, dx + dw, dy + dh, x, y, x + width, y + height, null);
+        }
+
+        public int getSheetIndex() { return sheet; }
+        public int getX() { return x; }
+        public int getY() { return y; }
+        public int getWidth() { return width; }
+        public int getHeight() { return height; }
+    }
+
+    private final Map<BufferedImage, Region> regions = new IdentityHashMap<>();
+    private final List<BufferedImage> sheets = new ArrayList<>();
+    private Image[] drawSheets = new Image[0];
+    private ImageAccelerator.VolatileCopy[] volatileSheets;
+
+    static SpriteAtlas build(List<BufferedImage> images, GraphicsConfiguration gc) {
+        return build(images, DEFAULT_SHEET_SIZE, gc);
+    }
+
+    static SpriteAtlas build(List<BufferedImage> images, int sheetSize, GraphicsConfiguration gc) {
+        SpriteAtlas atlas = new SpriteAtlas();
+        List<BufferedImage> sorted = new ArrayList<>();
+        for (BufferedImage img : images) {
+            if (img != null && !atlas.regions.containsKey(img) && !sorted.contains(img)
+                    && img.getWidth() + 2 * PADDING <= sheetSize && img.getHeight() + 2 * PADDING <= sheetSize) {
+                sorted.add(img);
+            }
+        }
+        sorted.sort((a, b) -> Integer.compare(b.getHeight(), a.getHeight()));
+
+        int transparency = Transparency.BITMASK;
+        for (BufferedImage img : sorted) {
+            transparency = Math.max(transparency, ImageAccelerator.classify(img));
+        }
+
+        List<int[]> placements = new ArrayList<>();
+        List<Integer> sheetIndex = new ArrayList<>();
+        List<int[]> sheetExtents = new ArrayList<>();
+        int sheet = 0;
+        int cursorX = 0;
+        int cursorY = 0;
+        int shelfHeight = 0;
+        int usedWidth = 0;
+        for (BufferedImage img : sorted) {
+            int w = img.getWidth() + 2 * PADDING;
+            int h = img.getHeight() + 2 * PADDING;
+            if (cursorX + w > sheetSize) {
+                cursorX = 0;
+                cursorY += shelfHeight;
+                shelfHeight = 0;
+            }
+            if (cursorY + h > sheetSize) {
+                sheetExtents.add(new int[] {usedWidth, cursorY + shelfHeight});
+                sheet++;
+                cursorX = 0;
+                cursorY = 0;
+                shelfHeight = 0;
+                usedWidth = 0;
+            }
+            placements.add(new int[] {cursorX + PADDING, cursorY + PADDING});
+            sheetIndex.add(sheet);
+            cursorX += w;
+            usedWidth = Math.max(usedWidth, cursorX);
+            shelfHeight = Math.max(shelfHeight, h);
+        }
+        if (!sorted.isEmpty()) {
+            sheetExtents.add(new int[] {usedWidth, cursorY + shelfHeight});
+        }
+
+        for (int[] extent : sheetExtents) {
+            int w = Math.max(1, extent[0]);
+            int h = Math.max(1, extent[1]);
+            atlas.sheets.add((gc != null) ? gc.createCompatibleImage(w, h, transparency) : new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB));
+        }
+        atlas.drawSheets = atlas.sheets.toArray(new Image[0]);
+        Graphics2D[] graphics = new Graphics2D[atlas.sheets.size()];
+        for (int i = 0; i < graphics.length; i++) {
+            graphics[i] = atlas.sheets.get(i).createGraphics();
+        }
+        for (int i = 0; i < sorted.size(); i++) {
+            BufferedImage img = sorted.get(i);
+            int[] pos = placements.get(i);
+            graphics[sheetIndex.get(i)].drawImage(img, pos[0], pos[1], null);
+            atlas.regions.put(img, new Region(atlas, sheetIndex.get(i), pos[0], pos[1], img.getWidth(), img.getHeight()));
+        }
+        for (Graphics2D g : graphics) {
+            g.dispose();
+        }
+        return atlas;
+    }
+
+    public void enableVolatileSheets() {
+        volatileSheets = new ImageAccelerator.VolatileCopy[sheets.size()];
+        for (int i = 0; i < volatileSheets.length; i++) {
+            BufferedImage sheet = sheets.get(i);
+            volatileSheets[i] = new ImageAccelerator.VolatileCopy(sheet, sheet.getTransparency());
+        }
+    }
+
+    public boolean validate(GraphicsConfiguration gc) {
+        if (volatileSheets == null) {
+            return false;
+        }
+        boolean restored = false;
+        for (int i = 0; i < volatileSheets.length; i++) {
+            restored |= volatileSheets[i].validate(gc);
+            drawSheets[i] = volatileSheets[i].image();
+        }
+        return restored;
+    }
+
+    public boolean contentsLost() {
+        if (volatileSheets != null) {
+            for (ImageAccelerator.VolatileCopy copy : volatileSheets) {
+                if (copy.contentsLost()) return true;
+            }
+        }
+        return false;
+    }
+
+    Image sheetImage(int index) {
+        return drawSheets[index];
+    }
+
+    public Region find(BufferedImage image) {
+        return (image != null) ? regions.get(image) : null;
+    }
+
+    public void draw(Graphics2D g, BufferedImage image, int x, int y, int w, int h) {
+        Region region = find(image);
+        if (region != null) {
+            region.draw(g, x, y, w, h);
+        } else if (image != null) {
+            g.drawImage(image, x, y, w, h, null);
+        }
+    }
+
+    public List<BufferedImage> getSheets() {
+        return sheets;
+    }
+
+    public int getRegionCount() {
+        return regions.size();
+    }
+}
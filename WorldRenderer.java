@@ -0,0 +1,197 @@
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+
+class WorldRenderer {
+    private static final int WIDTH = GameWorld.WIDTH;
+    private static final int HEIGHT = GameWorld.HEIGHT;
+    private static final int GROUND_HEIGHT = GameWorld.GROUND_HEIGHT;
+    private static final Color GROUND_COLOR = new Color(220, 220, 220);
+    private static final char[] SCORE_PREFIX = "Score: ".toCharArray();
+    private static final char[] GIFT1_PREFIX = "G1: ".toCharArray();
+    private static final char[] GIFT2_PREFIX = "G2: ".toCharArray();
+    private static final int LABEL_WIDTH = 240;
+    private static final Color CLEAR = new Color(0, 0, 0, 0);
+
+    private final GameWorld world;
+    private final RenderQueue queue = new RenderQueue();
+    private final char[] text = new char[32];
+    private Font baseFont;
+    private HudLabel scoreLabel;
+    private HudLabel gift1Label;
+    private HudLabel gift2Label;
+
+    private static final class HudLabel {
+        private final BufferedImage image;
+        private final Graphics2D g;
+        private final Graphics2D clear;
+        private final int ascent;
+        private final char[] shown = new char[32];
+        private int shownLength = -1;
+
+        HudLabel(Font font) {
+            BufferedImage probe = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D pg = probe.createGraphics();
+            FontMetrics fm = pg.getFontMetrics(font);
+            pg.dispose();
+            ascent = fm.getAscent();
+            image = new BufferedImage(LABEL_WIDTH, Math.max(1, fm.getHeight()), BufferedImage.TYPE_INT_ARGB);
+            g = image.createGraphics();
+            g.setFont(font);
+            g.setColor(Color.BLACK);
+            clear = image.createGraphics();
+            clear.setComposite(AlphaComposite.Src);
+            clear.setColor(CLEAR);
+        }
+
+        void draw(Graphics2D target, char[] text, int length, int x, int baselineY) {
+            if (!matches(text, length)) {
+                clear.fillRect(0, 0, image.getWidth(), image.getHeight());
+                g.drawChars(text, 0, length, 0, ascent);
+                System.arraycopy(text, 0, shown, 0, length);
+                shownLength = length;
+            }
+            target.drawImage(image, x, baselineY - ascent, null);
+        }
+
+        private boolean matches(char[] text, int length) {
+            if (length != shownLength) return false;
+            for (int i = 0; i < length; i++) {
+                if (text[i] != shown[i]) return false;
+            }
+            return true;
+        }
+    }
+
+    public WorldRenderer(GameWorld world) {
+        this.world = world;
+    }
+
+    public void drawBackground(Graphics2D g, WorldSnapshot snapshot, double alpha) {
+        GameAssets assets = world.getAssets();
+        double bw = (assets.backgroundImage != null) ? assets.backgroundImage.getWidth() : 0;
+        drawBackground(g, assets, snapshot.bgOffset(alpha, bw));
+    }
+
+    static void drawBackground(Graphics2D g, GameAssets assets, double offset) {
+        BufferedImage backgroundImage = assets.backgroundImage;
+        if (backgroundImage != null) {
+            int bw = backgroundImage.getWidth();
+            if (bw <= 0) {
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, WIDTH, HEIGHT);
+            } else {
+                Image background = assets.backgroundSurface();
+                double startX = - (offset % bw);
+                for (int i = 0; i <= WIDTH / bw + 1; i++) {
+                    int drawX = (int) Math.round(startX + i * bw);
+                    g.drawImage(background, drawX, 0, null);
+                }
+            }
+        } else {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, WIDTH, HEIGHT);
+        }
+
+        g.setColor(GROUND_COLOR);
+        g.fillRect(0, HEIGHT - GROUND_HEIGHT, WIDTH, GROUND_HEIGHT);
+    }
+
+    public void drawWorld(Graphics2D g, WorldSnapshot snapshot, double alpha) {
+        GameAssets assets = world.getAssets();
+        RenderQueue queue = this.queue;
+        queue.begin(assets.atlas);
+
+        int px = snapshot.playerRenderX(alpha);
+        int py = snapshot.playerRenderY(alpha);
+        if (snapshot.playerFrame != null) {
+            queue.submit(RenderQueue.LAYER_PLAYER, snapshot.playerFrame, px, py, snapshot.playerWidth, snapshot.playerHeight);
+        } else {
+            queue.submitFill(RenderQueue.LAYER_PLAYER, Color.BLUE, px, py, snapshot.playerWidth, snapshot.playerHeight);
+        }
+
+        WorldSnapshot.Entities obstacles = snapshot.obstacles;
+        BufferedImage[] obstacleImages = world.getObstacleImages();
+        for (int i = 0; i < obstacles.count; i++) {
+            int drawX = obstacles.renderX(i, alpha);
+            int drawY = (int) Math.round(obstacles.y[i]);
+            BufferedImage img = obstacleImages[obstacles.image[i]];
+            if (img != null) {
+                queue.submit(RenderQueue.LAYER_OBSTACLES, img, drawX, drawY, obstacles.width[i], obstacles.height[i]);
+            } else {
+                queue.submitFill(RenderQueue.LAYER_OBSTACLES, Color.RED, drawX, drawY, obstacles.width[i], obstacles.height[i]);
+            }
+        }
+
+        WorldSnapshot.Entities gifts = snapshot.gifts;
+        BufferedImage[] giftImages = world.getGiftImages();
+        for (int i = 0; i < gifts.count; i++) {
+            BufferedImage img = giftImages[gifts.image[i]];
+            if (img != null) {
+                queue.submit(RenderQueue.LAYER_GIFTS, img, gifts.renderX(i, alpha), (int) Math.round(gifts.y[i]), gifts.width[i], gifts.height[i]);
+            }
+        }
+        queue.flush(g);
+    }
+
+    public RenderQueue getQueue() {
+        return queue;
+    }
+
+    public void drawHud(Graphics2D g, WorldSnapshot snapshot) {
+        Font font = g.getFont();
+        if (font != baseFont) {
+            baseFont = font;
+            scoreLabel = new HudLabel(font.deriveFont(18f));
+            gift1Label = new HudLabel(font.deriveFont(16f));
+            gift2Label = new HudLabel(font.deriveFont(16f));
+        }
+
+        int len = appendInt(snapshot.score, append(SCORE_PREFIX, 0));
+        scoreLabel.draw(g, text, len, 10, 20);
+
+        int hudY = 40;
+        if (snapshot.gift1Active) {
+            len = appendSeconds(snapshot.gift1Timer, append(GIFT1_PREFIX, 0));
+            gift1Label.draw(g, text, len, 10, hudY);
+            hudY += 20;
+        }
+        if (snapshot.gift2Active) {
+            len = appendSeconds(snapshot.gift2Timer, append(GIFT2_PREFIX, 0));
+            gift2Label.draw(g, text, len, 10, hudY);
+        }
+    }
+
+    private int append(char[] chars, int pos) {
+        System.arraycopy(chars, 0, text, pos, chars.length);
+        return pos + chars.length;
+    }
+
+    private int appendInt(int value, int pos) {
+        if (value < 0) {
+            text[pos++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (int v = value / 10; v > 0; v /= 10) digits++;
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            text[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + digits;
+    }
+
+    private int appendSeconds(double seconds, int pos) {
+        if (seconds < 0) seconds = 0;
+        long tenths = Math.round(seconds * 10.0);
+        pos = appendInt((int) (tenths / 10), pos);
+        text[pos++] = '.';
+        text[pos++] = (char) ('0' + tenths % 10);
+        text[pos++] = 's';
+        return pos;
+    }
+}
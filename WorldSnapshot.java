@@ -0,0 +1,111 @@
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+class WorldSnapshot {
+    static final class Entities {
+        int count = 0;
+        double[] prevX = new double[16];
+        double[] x = new double[16];
+        double[] y = new double[16];
+        int[] width = new int[16];
+        int[] height = new int[16];
+        int[] image = new int[16];
+
+        void capture(EntityRing ring) {
+            int n = ring.size();
+            if (n > x.length) {
+                int capacity = Integer.highestOneBit(n - 1) << 1;
+                prevX = Arrays.copyOf(prevX, capacity);
+                x = Arrays.copyOf(x, capacity);
+                y = Arrays.copyOf(y, capacity);
+                width = Arrays.copyOf(width, capacity);
+                height = Arrays.copyOf(height, capacity);
+                image = Arrays.copyOf(image, capacity);
+            }
+            for (int i = 0, s = ring.head(); i < n; i++, s = ring.next(s)) {
+                prevX[i] = ring.prevX[s];
+                x[i] = ring.x[s];
+                y[i] = ring.y[s];
+                width[i] = ring.width[s];
+                height[i] = ring.height[s];
+                image[i] = ring.image[s];
+            }
+            count = n;
+        }
+
+        int renderX(int i, double alpha) {
+            return (int) Math.round(prevX[i] + (x[i] - prevX[i]) * alpha);
+        }
+    }
+
+    long publishNanos;
+    long simNanos;
+    long simTick;
+    boolean hasWorld;
+    boolean running;
+    boolean gameOverMenu;
+    int idleIndex;
+
+    BufferedImage playerFrame;
+    double playerPrevX;
+    double playerPrevY;
+    double playerX;
+    double playerY;
+    int playerWidth;
+    int playerHeight;
+
+    double prevBgOffset;
+    double bgOffset;
+
+    int score;
+    long levelMisses;
+    boolean gift1Active;
+    double gift1Timer;
+    boolean gift2Active;
+    double gift2Timer;
+
+    final Entities obstacles = new Entities();
+    final Entities gifts = new Entities();
+
+    void capture(GameWorld world) {
+        hasWorld = true;
+        Player player = world.getPlayer();
+        int offsetY = player.getDrawOffsetY();
+        playerFrame = player.getDrawFrame();
+        playerPrevX = player.getPrevX();
+        playerPrevY = player.getPrevY() + offsetY;
+        playerX = player.getX();
+        playerY = player.getY() + offsetY;
+        playerWidth = player.getDrawWidth();
+        playerHeight = player.getDrawHeight();
+
+        prevBgOffset = world.getPrevBgOffset();
+        bgOffset = world.getBgOffset();
+
+        score = world.getScore();
+        levelMisses = world.getLevelStream().getMissCount();
+        gift1Active = world.isGift1Active();
+        gift1Timer = world.getGift1Timer();
+        gift2Active = world.isGift2Active();
+        gift2Timer = world.getGift2Timer();
+
+        obstacles.capture(world.getObstacles());
+        gifts.capture(world.getGifts());
+    }
+
+    int playerRenderX(double alpha) {
+        return (int) Math.round(playerPrevX + (playerX - playerPrevX) * alpha);
+    }
+
+    int playerRenderY(double alpha) {
+        return (int) Math.round(playerPrevY + (playerY - playerPrevY) * alpha);
+    }
+
+    double bgOffset(double alpha, double backgroundWidth) {
+        double current = bgOffset;
+        if (current < prevBgOffset) {
+            current += backgroundWidth;
+        }
+        return prevBgOffset + (current - prevBgOffset) * alpha;
+    }
+}